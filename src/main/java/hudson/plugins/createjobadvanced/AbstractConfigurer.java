@@ -2,22 +2,20 @@ package hudson.plugins.createjobadvanced;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
+import hudson.BulkChange;
+import hudson.ExtensionPoint;
 import hudson.model.AbstractItem;
 import hudson.model.Hudson;
 import hudson.model.Item;
 import hudson.security.Permission;
 import hudson.security.SecurityMode;
 import java.io.IOException;
-import java.text.MessageFormat;
-import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import jenkins.model.Jenkins;
 import org.jenkinsci.plugins.matrixauth.PermissionEntry;
 import org.jenkinsci.plugins.matrixauth.inheritance.InheritParentStrategy;
@@ -26,17 +24,35 @@ import org.jenkinsci.plugins.matrixauth.inheritance.InheritanceStrategy;
 /**
  * Partial default implementation of item configurers.
  * <P>
- * Used to apply plugin configuration to items
+ * Used to apply plugin configuration to items. Other plugins can register configurers for their own item types as
+ * extensions.
  *
  * @author Laurent Coltat
  */
-public abstract class AbstractConfigurer<T extends AbstractItem, A> {
+public abstract class AbstractConfigurer<T extends AbstractItem, A> implements ExtensionPoint {
 
     /**
      * Plugin logger
      */
     protected static final Logger log = Logger.getLogger(CreateJobAdvancedPlugin.class.getName());
 
+    /**
+     * Permissions granted to item creator
+     */
+    private static final Permission[] OWNER_PERMISSIONS = {
+        Item.CONFIGURE, Item.BUILD, Item.READ, Item.DELETE, Item.WORKSPACE
+    };
+
+    /**
+     * Permissions granted to anonymous user
+     */
+    private static final Permission[] PUBLIC_PERMISSIONS = {Item.READ, Item.WORKSPACE};
+
+    /**
+     * Item just created, and configured, by the current thread
+     */
+    private static final ThreadLocal<Item> CREATED = new ThreadLocal<>();
+
     /**
      * Update given Item according to plugin configuration.
      *
@@ -49,34 +65,166 @@ public abstract class AbstractConfigurer<T extends AbstractItem, A> {
         }
         log.finest("> AbstractConfigurer.onCreated()");
 
+        long start = System.nanoTime();
         doRename(item);
+        CreationMetrics.record(CreationMetrics.Phase.RENAME, start);
+
+        if (isSecurityEnabled()) {
+            // all grants are applied at once, so that the item is persisted only one time
+            applyPermissionPlan(item, createPermissionPlan(item, getConfiguration(cja, item), true));
+        }
+        log.finest("< AbstractConfigurer.onCreated()");
+    }
+
+    /**
+     * Run given configuration of given item with item saves suspended. Settings changed by every configurer, like
+     * permissions, log rotator or Maven reporters, are written at once when the configuration ends.
+     *
+     * @param item item to be configured
+     * @param created true if the item has just been created by the calling thread, and is not used by other threads
+     *     yet: its authorization matrix property can then be updated in place
+     * @param configuration item configuration
+     */
+    static void configureInSession(@NonNull Item item, boolean created, @NonNull Runnable configuration) {
+        final Item outer = CREATED.get();
+        if (created) {
+            CREATED.set(item);
+        }
+        try {
+            if (!(item instanceof AbstractItem)) {
+                configuration.run();
+                return;
+            }
+            try (BulkChange bc = new BulkChange((AbstractItem) item)) {
+                configuration.run();
+                bc.commit();
+            } catch (IOException e) {
+                log.log(Level.SEVERE, "unable to save " + item.getFullName(), e);
+            }
+        } finally {
+            if (null == outer) {
+                CREATED.remove();
+            } else {
+                CREATED.set(outer);
+            }
+        }
+    }
+
+    /**
+     * Apply plugin configuration again to given existing item.
+     * <P>
+     * Unlike {@link #doCreate(Item)}, the item is neither renamed nor granted to the current user.
+     *
+     * @param item item to be updated
+     * @return true if the item has been updated, false if it already complied with the configuration
+     */
+    protected boolean doReapply(Item item) {
+        final CreateJobAdvancedPlugin cja = getPlugin();
+        if (null == cja) {
+            return false;
+        }
+        if (isSecurityEnabled()) {
+            return applyPermissionPlan(item, createPermissionPlan(item, getConfiguration(cja, item), false));
+        }
+        return false;
+    }
+
+    /**
+     * Check, without updating it, if given existing item complies with plugin configuration.
+     *
+     * @param item item to be checked
+     * @return true if {@link #doReapply(Item)} would leave given item unchanged
+     */
+    protected boolean isCompliant(Item item) {
+        final CreateJobAdvancedPlugin cja = getPlugin();
+        if (null == cja || !isApplicable(item) || !isSecurityEnabled()) {
+            return true;
+        }
+        final PermissionPlan plan = createPermissionPlan(item, getConfiguration(cja, item), false);
+        if (plan.isEmpty()) {
+            return true;
+        }
+        final A existing = getAuthorizationMatrixProperty(item);
+        if (null == existing) {
+            return false;
+        }
+        for (Map.Entry<Permission, Set<PermissionEntry>> grant : plan.getGrants().entrySet()) {
+            for (PermissionEntry permEntry : grant.getValue()) {
+                if (!hasExplicitPermission(existing, grant.getKey(), permEntry) && showPermission(grant.getKey())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
 
+    /**
+     * Check if given item is handled by this configurer.
+     *
+     * @param item item to be checked
+     * @return true if this configurer applies to given item
+     */
+    protected boolean isApplicable(@Nullable Item item) {
+        return null != item && isApplicable(item.getClass());
+    }
+
+    /**
+     * Check if items of given class are handled by this configurer. The answer is cached by item class, and must be
+     * consistent with {@link #isApplicable(Item)}.
+     *
+     * @param itemType item class
+     * @return true if this configurer applies to items of given class
+     */
+    protected boolean isApplicable(@NonNull Class<?> itemType) {
+        return true;
+    }
+
+    /**
+     * @return true if Jenkins security is activated
+     */
+    static boolean isSecurityEnabled() {
         // hudson must activate security mode for using
         Jenkins jenkinsInstance = Hudson.getInstanceOrNull();
         if (jenkinsInstance == null
                 || jenkinsInstance.getSecurity() == null
                 || jenkinsInstance.getSecurity().equals(SecurityMode.UNSECURED)) {
-            log.warning("Jenkins security mode disabled.");
-            log.finest("< AbstractConfigurer.onCreated()");
-            return;
+            // checked for every item, callers processing many items report it once
+            log.fine("Jenkins security mode disabled.");
+            return false;
         }
+        return true;
+    }
 
-        if (cja.isAutoOwnerRights()) {
+    /**
+     * Collect every permission to be granted to given item according to given configuration.
+     *
+     * @param item item to be granted
+     * @param config plugin configuration
+     * @param withOwner true to grant the current user as item owner
+     * @return permission plan of given item
+     */
+    protected final @NonNull PermissionPlan createPermissionPlan(
+            @NonNull Item item, @NonNull PluginConfiguration config, boolean withOwner) {
+        PermissionPlan plan = new PermissionPlan();
+        if (withOwner && config.isAutoOwnerRights()) {
+            long start = System.nanoTime();
             String sid = Hudson.getAuthentication2().getName();
-            securityGrantPermissions(item, PermissionEntry.user(sid), new Permission[] {
-                Item.CONFIGURE, Item.BUILD, Item.READ, Item.DELETE, Item.WORKSPACE
-            });
+            plan.grant(PermissionEntries.user(sid), OWNER_PERMISSIONS);
+            CreationMetrics.record(CreationMetrics.Phase.OWNER_GRANT, start);
         }
 
-        if (cja.isAutoPublicBrowse()) {
-            securityGrantPermissions(
-                    item, PermissionEntry.user("anonymous"), new Permission[] {Item.READ, Item.WORKSPACE});
+        if (config.isAutoPublicBrowse()) {
+            long start = System.nanoTime();
+            plan.grant(PermissionEntries.user("anonymous"), PUBLIC_PERMISSIONS);
+            CreationMetrics.record(CreationMetrics.Phase.PUBLIC_GRANT, start);
         }
 
-        if (cja.isActiveDynamicPermissions()) {
-            securityGrantDynamicPermissions(item, cja);
+        if (config.isActiveDynamicPermissions()) {
+            long start = System.nanoTime();
+            config.getDynamicPermissionRules().plan(plan, item.getName());
+            CreationMetrics.record(CreationMetrics.Phase.DYNAMIC_GRANT, start);
         }
-        log.finest("< AbstractConfigurer.onCreated()");
+        return plan;
     }
 
     /**
@@ -87,10 +235,10 @@ public abstract class AbstractConfigurer<T extends AbstractItem, A> {
     protected final String doRename(Item item) {
         String resulString = item.getName();
         final CreateJobAdvancedPlugin cja = getPlugin();
-        if (null != cja && cja.isReplaceSpace()) {
-            if (item.getName().contains(" ")) {
+        if (null != cja && cja.getConfiguration().isReplaceSpace()) {
+            if (resulString.indexOf(' ') >= 0) {
                 try {
-                    resulString = item.getName().replaceAll(" ", "-");
+                    resulString = NameNormalizingFilter.normalize(resulString);
                     renameJob(item, resulString);
                 } catch (IOException e) {
                     log.log(Level.SEVERE, "error during rename", e);
@@ -104,77 +252,302 @@ public abstract class AbstractConfigurer<T extends AbstractItem, A> {
      * @return plugin configuration instance.identity/
      */
     protected final CreateJobAdvancedPlugin getPlugin() {
-        CreateJobAdvancedPlugin result = null;
-        Jenkins instance = Jenkins.getInstanceOrNull();
-        if (null != instance) {
-            result = instance.getPlugin(CreateJobAdvancedPlugin.class);
-        }
-        return result;
+        return getContext().getPlugin();
+    }
+
+    /**
+     * @return shared plugin instance, descriptors and permission visibility
+     */
+    protected final @NonNull ConfigurerContext getContext() {
+        return ConfigurerContext.get();
+    }
+
+    /**
+     * @param cja plugin instance
+     * @param item created or updated item
+     * @return plugin configuration with the policies of the folders enclosing given item applied
+     */
+    protected final @NonNull PluginConfiguration getConfiguration(
+            @NonNull CreateJobAdvancedPlugin cja, @NonNull Item item) {
+        return FolderPolicyIndex.get().resolve(item, cja.getConfiguration());
     }
 
     /**
-     * Grant dynamic group permissions to given item according to plugin configuration.
+     * Grant given Jenkins permissions to given item for given sid of given type.
      *
      * @param item item to be granted
-     * @param cja plugin configuration
+     * @param permEnt Permission entry
+     * @param jenkinsPermissions permissions to grant
      */
-    private void securityGrantDynamicPermissions(final Item item, CreateJobAdvancedPlugin cja) {
-        String patternStr = cja.getExtractPattern(); // com.([A-Z]{3}).(.*)
-
-        List<String> groupsList = new ArrayList<>();
+    protected final void securityGrantPermissions(
+            final Item item, PermissionEntry permEnt, Permission[] jenkinsPermissions) {
+        applyPermissionPlan(item, new PermissionPlan().grant(permEnt, jenkinsPermissions));
+    }
 
-        if (patternStr != null) {
-            Pattern pattern = Pattern.compile(patternStr);
-            Matcher matcher = pattern.matcher(item.getName());
-            boolean matchFound = matcher.find();
+    /**
+     * Grant every permission of given plan to given item, persisting it only once.
+     * <P>
+     * When the item already has an authorization matrix property, only the missing permissions are added to it, and
+     * the item is not saved at all if every permission is already granted. The property of an item just created is
+     * completed in place, the one of an existing item, possibly read by other threads, is replaced by a completed copy.
+     * Otherwise a new property is built.
+     *
+     * @param item item to be granted
+     * @param plan permissions to grant
+     * @return true if the item has been updated
+     */
+    protected final boolean applyPermissionPlan(final Item item, final PermissionPlan plan) {
+        if (plan.isEmpty()) {
+            return false;
+        }
+        long start = System.nanoTime();
+        boolean changed = true;
+        try {
+            A existing = getAuthorizationMatrixProperty(item);
+            if (null != existing) {
+                changed = addMissingPermissions(item, existing, plan);
+            } else {
+                Map<Permission, Set<PermissionEntry>> permissions = initPermissions(item);
+                final PermissionPlan added = new PermissionPlan();
+                for (Map.Entry<Permission, Set<PermissionEntry>> grant : plan.getGrants().entrySet()) {
+                    final boolean shown = showPermission(grant.getKey());
+                    for (PermissionEntry permEnt : grant.getValue()) {
+                        if (shown && !permissions.getOrDefault(grant.getKey(), Set.of()).contains(permEnt)) {
+                            added.grant(permEnt, grant.getKey());
+                        }
+                        configurePermission(permissions, grant.getKey(), permEnt);
+                    }
+                }
+                A authProperty = setupAuthorizationMatrixProperty(permissions);
+                addAuthorizationMatrixProperty(item, authProperty);
+                recordGrants(item, added);
+            }
+        } catch (IOException e) {
+            log.log(Level.SEVERE, "problem to add granted permissions", e);
+        }
+        CreationMetrics.record(CreationMetrics.Phase.PERMISSION_APPLY, start);
+        if (!changed) {
+            log.log(Level.FINE, "{0} already granted", item.getFullName());
+            CreationMetrics.recordSkip(CreationMetrics.Phase.PERMISSION_APPLY);
+        }
+        return changed;
+    }
 
-            if (matchFound) {
-                // Get all groups for this match
-                for (int i = 0; i <= matcher.groupCount(); i++) {
-                    String groupStr = matcher.group(i);
-                    log.log(Level.FINE, "groupStr: {0}", groupStr);
-                    groupsList.add(groupStr);
+    /**
+     * Add the permissions of given plan not granted yet to the existing authorization matrix property of given item.
+     *
+     * @param item item to be granted
+     * @param authProperty existing authorization matrix property of the item
+     * @param plan permissions to grant
+     * @return true if some permissions have been added, and the item saved
+     * @throws IOException if the item cannot be saved
+     */
+    private boolean addMissingPermissions(Item item, @NonNull A authProperty, PermissionPlan plan)
+            throws IOException {
+        final PermissionPlan added = new PermissionPlan();
+        for (Map.Entry<Permission, Set<PermissionEntry>> grant : plan.getGrants().entrySet()) {
+            final Permission perm = grant.getKey();
+            Boolean shown = null;
+            for (PermissionEntry permEntry : grant.getValue()) {
+                if (hasExplicitPermission(authProperty, perm, permEntry)) {
+                    continue;
+                }
+                if (null == shown) {
+                    shown = showPermission(perm);
+                }
+                if (shown) {
+                    added.grant(permEntry, perm);
+                } else {
+                    log.log(Level.FINER, ": {0}skip hidden permissions {1}", new Object[] {
+                        this.getClass().getName(), perm.name
+                    });
+                }
+            }
+        }
+        if (added.isEmpty()) {
+            return false;
+        }
+        if (CREATED.get() == item) {
+            for (Map.Entry<Permission, Set<PermissionEntry>> grant : added.getGrants().entrySet()) {
+                for (PermissionEntry permEntry : grant.getValue()) {
+                    addPermission(authProperty, grant.getKey(), permEntry);
+                }
+            }
+            saveItem(item);
+        } else {
+            final Map<Permission, Set<PermissionEntry>> permissions = copyPermissions(authProperty);
+            for (Map.Entry<Permission, Set<PermissionEntry>> grant : added.getGrants().entrySet()) {
+                for (PermissionEntry permEntry : grant.getValue()) {
+                    configurePermission(permissions, grant.getKey(), permEntry);
                 }
             }
+            replaceAuthorizationMatrixProperty(item, authProperty, permissions);
         }
+        recordGrants(item, added);
+        return true;
+    }
 
-        for (DynamicPermissionConfig dpc : cja.getDynamicPermissionConfigs()) {
-            MessageFormat format = new MessageFormat(dpc.getGroupFormat());
-            final String newName = format.format(groupsList.toArray(String[]::new));
-            log.log(Level.FINEST, "add perms for group: {0}", newName);
+    /**
+     * @param authProperty authorization matrix property
+     * @return modifiable copy of the permissions granted by given property
+     */
+    private Map<Permission, Set<PermissionEntry>> copyPermissions(@NonNull A authProperty) {
+        final Map<Permission, Set<PermissionEntry>> permissions = new HashMap<>();
+        for (Map.Entry<Permission, Set<PermissionEntry>> entry :
+                getGrantedPermissionEntries(authProperty).entrySet()) {
+            permissions.put(entry.getKey(), new HashSet<>(entry.getValue()));
+        }
+        return permissions;
+    }
 
-            final Set<String> permissions = dpc.getCheckedPermissionIds();
-            List<Permission> permissionList = new ArrayList<>();
-            for (String id : permissions) {
-                final Permission permForId = Permission.fromId(id);
-                permissionList.add(permForId);
-            }
+    /**
+     * Replace the authorization matrix property of given item by a new one granting given permissions, with the same
+     * inheritance strategy. The existing property is left untouched for the threads reading it.
+     *
+     * @param item item to be updated
+     * @param existing existing authorization matrix property of the item
+     * @param permissions permissions of the new property
+     * @throws IOException if the item cannot be saved
+     */
+    private void replaceAuthorizationMatrixProperty(
+            Item item, @NonNull A existing, Map<Permission, Set<PermissionEntry>> permissions) throws IOException {
+        final A authProperty = setupAuthorizationMatrixProperty(permissions);
+        final InheritanceStrategy strategy = getInheritanceStrategy(existing);
+        if (null != strategy) {
+            setInheritanceStrategy(authProperty, strategy);
+        }
+        removeProperty(item, existing);
+        addAuthorizationMatrixProperty(item, authProperty);
+    }
 
-            securityGrantPermissions(
-                    item, PermissionEntry.group(newName), (Permission[]) permissionList.toArray(Permission[]::new));
+    /**
+     * Record the grants added by the plugin to given item, once persisted, with the fingerprint of the policy applied
+     * to the item.
+     *
+     * @param item granted item
+     * @param added grants added to the item
+     */
+    private void recordGrants(Item item, PermissionPlan added) {
+        final String fullName = item.getFullName();
+        final CreateJobAdvancedPlugin cja = getPlugin();
+        if (null == fullName || null == cja || added.isEmpty()) {
+            return;
+        }
+        final long ruleVersion = getConfiguration(cja, item).getPolicyFingerprint();
+        for (Map.Entry<Permission, Set<PermissionEntry>> grant : added.getGrants().entrySet()) {
+            for (PermissionEntry permEntry : grant.getValue()) {
+                GrantProvenance.get().record(fullName, grant.getKey(), permEntry, ruleVersion);
+            }
         }
     }
 
     /**
-     * Grant given Jenkins permissions to given item for given sid of given type.
+     * Replace the dynamic permissions granted to given renamed or moved item for its former name and configuration
+     * by the ones of its current name and configuration. Only the permissions recorded as granted by the plugin are
+     * revoked, the item matrix is rebuilt only when some of them are.
      *
-     * @param item item to be granted
-     * @param permEnt Permission entry
-     * @param jenkinsPermissions permissions to grant
+     * @param item renamed or moved item
+     * @param oldName former item name
+     * @param oldConfig configuration applied to the item before it was moved
+     * @return true if the item has been updated
      */
-    protected final void securityGrantPermissions(
-            final Item item, PermissionEntry permEnt, Permission[] jenkinsPermissions) {
+    protected boolean doRecompute(Item item, @NonNull String oldName, @NonNull PluginConfiguration oldConfig) {
+        final CreateJobAdvancedPlugin cja = getPlugin();
+        if (null == cja || !isApplicable(item) || !isSecurityEnabled()) {
+            return false;
+        }
+        final PluginConfiguration config = getConfiguration(cja, item);
+        final PermissionPlan oldPlan = new PermissionPlan();
+        if (oldConfig.isActiveDynamicPermissions()) {
+            oldConfig.getDynamicPermissionRules().plan(oldPlan, oldName);
+        }
+        final PermissionPlan newPlan = new PermissionPlan();
+        if (config.isActiveDynamicPermissions()) {
+            config.getDynamicPermissionRules().plan(newPlan, item.getName());
+        }
+
+        final String fullName = item.getFullName();
+        final GrantProvenance provenance = GrantProvenance.get();
+        final PermissionPlan revoked = new PermissionPlan();
+        for (Map.Entry<Permission, Set<PermissionEntry>> grant : oldPlan.getGrants().entrySet()) {
+            for (PermissionEntry permEntry : grant.getValue()) {
+                if (!newPlan.contains(grant.getKey(), permEntry)
+                        && provenance.isGranted(fullName, grant.getKey(), permEntry)) {
+                    revoked.grant(permEntry, grant.getKey());
+                }
+            }
+        }
+        final A existing = getAuthorizationMatrixProperty(item);
+        if (revoked.isEmpty() || null == existing) {
+            return applyPermissionPlan(item, newPlan);
+        }
 
-        Map<Permission, Set<PermissionEntry>> permissions = initPermissions(item);
-        for (Permission perm : jenkinsPermissions) {
-            configurePermission(permissions, perm, permEnt);
+        long start = System.nanoTime();
+        final Map<Permission, Set<PermissionEntry>> permissions = copyPermissions(existing);
+        for (Map.Entry<Permission, Set<PermissionEntry>> grant : revoked.getGrants().entrySet()) {
+            final Set<PermissionEntry> entries = permissions.get(grant.getKey());
+            for (PermissionEntry permEntry : grant.getValue()) {
+                if (null != entries) {
+                    entries.remove(permEntry);
+                }
+            }
+        }
+        final PermissionPlan added = new PermissionPlan();
+        for (Map.Entry<Permission, Set<PermissionEntry>> grant : newPlan.getGrants().entrySet()) {
+            for (PermissionEntry permEntry : grant.getValue()) {
+                final Set<PermissionEntry> entries = permissions.get(grant.getKey());
+                if ((null == entries || !entries.contains(permEntry)) && showPermission(grant.getKey())) {
+                    added.grant(permEntry, grant.getKey());
+                }
+                configurePermission(permissions, grant.getKey(), permEntry);
+            }
         }
         try {
-            A authProperty = setupAuthorizationMatrixProperty(permissions);
-            addAuthorizationMatrixProperty(item, authProperty);
+            replaceAuthorizationMatrixProperty(item, existing, permissions);
+            // provenance follows the persisted matrix only
+            for (Map.Entry<Permission, Set<PermissionEntry>> grant : revoked.getGrants().entrySet()) {
+                for (PermissionEntry permEntry : grant.getValue()) {
+                    provenance.revoke(fullName, grant.getKey(), permEntry);
+                }
+            }
+            recordGrants(item, added);
         } catch (IOException e) {
-            log.log(Level.SEVERE, "problem to add granted permissions", e);
+            log.log(Level.SEVERE, "problem to recompute granted permissions", e);
         }
+        CreationMetrics.record(CreationMetrics.Phase.PERMISSION_APPLY, start);
+        return true;
+    }
+
+    /**
+     * Check if given permission is explicitly granted to given permission entry by given authorization matrix.
+     *
+     * @param authProperty authorization matrix property
+     * @param perm Jenkins permission
+     * @param permEntry permission entry
+     * @return true if the permission is granted
+     */
+    protected boolean hasExplicitPermission(
+            @NonNull A authProperty, @NonNull Permission perm, @NonNull PermissionEntry permEntry) {
+        Set<PermissionEntry> entries = getGrantedPermissionEntries(authProperty).get(perm);
+        return null != entries && entries.contains(permEntry);
+    }
+
+    /**
+     * @param authProperty authorization matrix property
+     * @return inheritance strategy of given authorization matrix property, null if unknown
+     */
+    protected @Nullable InheritanceStrategy getInheritanceStrategy(@NonNull A authProperty) {
+        return null;
+    }
+
+    /**
+     * Persist given item after an in place update of its authorization matrix property.
+     *
+     * @param item item to be saved
+     * @throws IOException if the item cannot be saved
+     */
+    protected void saveItem(@NonNull Item item) throws IOException {
+        item.save();
     }
 
     /**
@@ -184,7 +557,7 @@ public abstract class AbstractConfigurer<T extends AbstractItem, A> {
      * @return Jenkins permissions map granted to given item
      */
     protected final @NonNull Map<Permission, Set<PermissionEntry>> initPermissions(@Nullable Item item) {
-        // if you create the job with template, need to get informations
+        // items copied from a template are completed in place by applyPermissionPlan, this only keeps other grants
         A auth = getAuthorizationMatrixProperty(item);
         Map<Permission, Set<PermissionEntry>> permissions = getGrantedPermissionEntries(auth);
         removeProperty(item, auth);
@@ -229,7 +602,8 @@ public abstract class AbstractConfigurer<T extends AbstractItem, A> {
             Permission perm = entry.getKey();
             for (PermissionEntry permEntry : entry.getValue()) {
                 if (null != perm && null != permEntry && showPermission(perm)) {
-                    addPermission(authProperty, perm, permEntry);
+                    // entries copied from a template are shared with other items too
+                    addPermission(authProperty, perm, PermissionEntries.intern(permEntry));
                 } else {
                     if (null != perm) {
                         log.log(Level.FINER, ": {0}skip hidden permissions {1}", new Object[] {
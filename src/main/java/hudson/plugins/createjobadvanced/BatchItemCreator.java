@@ -0,0 +1,211 @@
+package hudson.plugins.createjobadvanced;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import hudson.BulkChange;
+import hudson.model.Failure;
+import hudson.model.Item;
+import hudson.model.Items;
+import hudson.model.TopLevelItem;
+import hudson.model.TopLevelItemDescriptor;
+import hudson.model.listeners.ItemListener;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.model.Jenkins;
+import jenkins.model.ModifiableTopLevelItemGroup;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+import org.springframework.security.access.AccessDeniedException;
+
+/**
+ * Create a batch of items, with plugin configuration applied before they are saved.
+ * <P>
+ * Each definition holds the item {@code name}, and either its {@code type} (descriptor ID, e.g.
+ * {@code hudson.model.FreeStyleProject}) or its {@code configXml}. The optional {@code folder} is the full name of the
+ * parent folder. Items created from a type are configured in memory and saved once. Items created from a
+ * {@code config.xml} are written by Jenkins first, then configured and saved once more. Items whose configuration
+ * fails are deleted, and reported as failed.
+ * <P>
+ * {@link ItemListenerImpl} ignores the creation events of these items, they are configured synchronously here.
+ */
+public final class BatchItemCreator {
+
+    private static final Logger log = Logger.getLogger(CreateJobAdvancedPlugin.class.getName());
+
+    /**
+     * Full name of the item being created by current thread
+     */
+    private static final ThreadLocal<String> CREATING = new ThreadLocal<>();
+
+    private int created;
+    private int failed;
+
+    /**
+     * @param item created item
+     * @return true when given item is being created, and configured, by a batch
+     */
+    static boolean isCreating(@NonNull Item item) {
+        return item.getFullName().equals(CREATING.get());
+    }
+
+    /**
+     * Create given items, in order. A failure does not prevent the creation of the next items.
+     *
+     * @param definitions item definitions
+     * @return JSON summary with the result of each item
+     */
+    public @NonNull JSONObject create(@NonNull JSONArray definitions) {
+        final JSONArray items = new JSONArray();
+        for (Object definition : definitions) {
+            items.add(create(definition instanceof JSONObject ? (JSONObject) definition : new JSONObject()));
+        }
+        JSONObject result = new JSONObject();
+        result.put("created", created);
+        result.put("failed", failed);
+        result.put("items", items);
+        return result;
+    }
+
+    private JSONObject create(JSONObject definition) {
+        final JSONObject result = new JSONObject();
+        String name = definition.optString("name", "").trim();
+        result.put("name", name);
+        ModifiableTopLevelItemGroup parent = null;
+        try {
+            final PluginConfiguration config = getConfiguration();
+            if (null != config && config.isReplaceSpace()) {
+                name = NameNormalizingFilter.normalize(name);
+            }
+            parent = getParent(definition.optString("folder", ""));
+            final String configXml = definition.optString("configXml", "");
+            final TopLevelItem item = configXml.isEmpty()
+                    ? createFromType(parent, name, definition.optString("type", ""))
+                    : createFromXml(parent, name, configXml);
+            result.put("fullName", item.getFullName());
+            result.put("status", "created");
+            created++;
+        } catch (IOException | Failure | IllegalArgumentException | AccessDeniedException e) {
+            log.log(Level.FINE, "unable to create item " + name, e);
+            failed(result, parent, name, e);
+        } catch (RuntimeException e) {
+            // e.g. from a descriptor or a configurer, the next items are created anyway
+            log.log(Level.WARNING, "unable to create item " + name, e);
+            failed(result, parent, name, e);
+        }
+        return result;
+    }
+
+    private void failed(
+            JSONObject result, @Nullable ModifiableTopLevelItemGroup parent, String name, Exception cause) {
+        result.put("status", "failed");
+        result.put("message", null == cause.getMessage() ? cause.toString() : cause.getMessage());
+        // the item may be left behind, when it could not be deleted after the failure
+        if (null != parent && !name.isEmpty()) {
+            try (ACLContext ignored = ACL.as2(ACL.SYSTEM2)) {
+                final Item item = parent.getItem(name);
+                if (null != item) {
+                    result.put("fullName", item.getFullName());
+                }
+            }
+        }
+        failed++;
+    }
+
+    private TopLevelItem createFromType(ModifiableTopLevelItemGroup parent, String name, String type)
+            throws IOException {
+        final TopLevelItemDescriptor descriptor = Items.all().findByName(type);
+        if (null == descriptor) {
+            throw new IllegalArgumentException("unknown item type " + type);
+        }
+        TopLevelItem item = null;
+        final String fullName = getFullName(parent, name);
+        CREATING.set(fullName);
+        // nothing is saved until the item is configured
+        final BulkChange bc = new BulkChange(BulkChange.ALL);
+        try {
+            item = parent.createProject(descriptor, name, false);
+            configure(item);
+            bc.abort();
+            item.save();
+            ItemListener.fireOnCreated(item);
+            return item;
+        } catch (IOException | RuntimeException e) {
+            bc.abort();
+            if (null != item) {
+                discard(item);
+            }
+            throw e;
+        } finally {
+            CREATING.remove();
+        }
+    }
+
+    private TopLevelItem createFromXml(ModifiableTopLevelItemGroup parent, String name, String configXml)
+            throws IOException {
+        final String fullName = getFullName(parent, name);
+        CREATING.set(fullName);
+        TopLevelItem item = null;
+        try {
+            item = parent.createProjectFromXML(
+                    name, new ByteArrayInputStream(configXml.getBytes(StandardCharsets.UTF_8)));
+            configure(item);
+            return item;
+        } catch (RuntimeException e) {
+            if (null != item) {
+                discard(item);
+            }
+            throw e;
+        } finally {
+            CREATING.remove();
+        }
+    }
+
+    /**
+     * Delete given item, whose configuration failed, so that no unconfigured item is left behind.
+     *
+     * @param item created item
+     */
+    private static void discard(TopLevelItem item) {
+        try (ACLContext ignored = ACL.as2(ACL.SYSTEM2)) {
+            item.delete();
+        } catch (IOException | RuntimeException e) {
+            log.log(Level.WARNING, "unable to delete " + item.getFullName() + " after its configuration failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.log(Level.WARNING, "interrupted while deleting " + item.getFullName(), e);
+        }
+    }
+
+    private static void configure(Item item) {
+        ItemListenerImpl listener = ItemListener.all().get(ItemListenerImpl.class);
+        if (null != listener) {
+            listener.configure(item, true);
+        }
+    }
+
+    private static ModifiableTopLevelItemGroup getParent(String folder) {
+        if (folder.isEmpty()) {
+            return Jenkins.get();
+        }
+        final Item item = Jenkins.get().getItemByFullName(folder);
+        if (item instanceof ModifiableTopLevelItemGroup) {
+            return (ModifiableTopLevelItemGroup) item;
+        }
+        throw new IllegalArgumentException("unknown folder " + folder);
+    }
+
+    private static String getFullName(ModifiableTopLevelItemGroup parent, String name) {
+        final String parentName = parent.getFullName();
+        return parentName.isEmpty() ? name : parentName + "/" + name;
+    }
+
+    private static @Nullable PluginConfiguration getConfiguration() {
+        final CreateJobAdvancedPlugin cja = CreateJobAdvancedPlugin.get();
+        return null == cja ? null : cja.getConfiguration();
+    }
+}
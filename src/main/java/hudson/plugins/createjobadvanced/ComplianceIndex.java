@@ -0,0 +1,264 @@
+package hudson.plugins.createjobadvanced;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import hudson.init.InitMilestone;
+import hudson.init.Initializer;
+import hudson.model.AbstractItem;
+import hudson.model.Item;
+import hudson.model.listeners.ItemListener;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.model.Jenkins;
+import jenkins.util.Timer;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+
+/**
+ * Compliance of every item with the plugin policy, as found by the last reconciliation scan.
+ * <P>
+ * Each item is recorded with the modification time of its {@code config.xml} and the fingerprint of the policy it was
+ * checked against, in a compact binary index under {@code $JENKINS_HOME/createjobadvanced}. A scan only checks again
+ * the items whose configuration or effective policy changed since the previous scan. A scan is started in the
+ * background once job configurations are loaded, its drifted items are reported by
+ * {@code /createjobadvanced/compliance} and re-applied by {@code /createjobadvanced/reapply?nonCompliant=true}.
+ */
+public final class ComplianceIndex {
+
+    private static final Logger log = Logger.getLogger(CreateJobAdvancedPlugin.class.getName());
+
+    /**
+     * Index format version
+     */
+    private static final int VERSION = 1;
+
+    private static final Object LOCK = new Object();
+
+    private static volatile ComplianceIndex last;
+
+    /**
+     * Recorded items, by full name
+     */
+    private final Map<String, Entry> entries;
+
+    private final int examined;
+
+    private ComplianceIndex(Map<String, Entry> entries, int examined) {
+        this.entries = entries;
+        this.examined = examined;
+    }
+
+    /**
+     * @return result of the last scan, null if no scan has completed yet
+     */
+    public static @Nullable ComplianceIndex get() {
+        return last;
+    }
+
+    /**
+     * @return full names of the items not complying with the policy, sorted
+     */
+    public @NonNull List<String> getNonCompliantItems() {
+        final List<String> result = new ArrayList<>();
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            if (!entry.getValue().compliant) {
+                result.add(entry.getKey());
+            }
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    /**
+     * @return number of recorded items
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return number of items actually checked by the scan, others were unchanged since the previous scan
+     */
+    public int getExamined() {
+        return examined;
+    }
+
+    /**
+     * Start a scan in the background once job configurations are loaded.
+     */
+    @Initializer(after = InitMilestone.JOB_CONFIG_ADAPTED)
+    public static void scanOnStartup() {
+        Timer.get().submit(() -> {
+            try {
+                scan();
+            } catch (IOException | RuntimeException e) {
+                log.log(Level.WARNING, "compliance scan failed", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    /**
+     * Check all items against the current policy, reusing the previous results of unchanged items.
+     *
+     * @return scan result
+     * @throws IOException if the index cannot be written
+     * @throws InterruptedException if interrupted while waiting for workers
+     */
+    public static @NonNull ComplianceIndex scan() throws IOException, InterruptedException {
+        synchronized (LOCK) {
+            final CreateJobAdvancedPlugin cja = CreateJobAdvancedPlugin.get();
+            final ItemListenerImpl listener = ItemListener.all().get(ItemListenerImpl.class);
+            final File file = getFile();
+            if (null == cja || null == listener || null == file) {
+                return new ComplianceIndex(Collections.emptyMap(), 0);
+            }
+            if (!AbstractConfigurer.isSecurityEnabled()) {
+                log.info("Jenkins security mode disabled, compliance scan does not check permissions");
+            }
+            final Map<String, Entry> previous = read(file.toPath());
+            final Map<String, Entry> entries = new ConcurrentHashMap<>();
+            final AtomicInteger examined = new AtomicInteger();
+            final long start = System.nanoTime();
+            final List<Item> items;
+            try (ACLContext ignored = ACL.as2(ACL.SYSTEM2)) {
+                items = new ArrayList<>(Jenkins.get().getAllItems());
+            }
+            ItemWorkers.forEach(items, item -> {
+                try (ACLContext ignored = ACL.as2(ACL.SYSTEM2)) {
+                    final List<AbstractConfigurer<?, ?>> configurers = listener.getConfigurers(item);
+                    if (configurers.isEmpty()) {
+                        return;
+                    }
+                    final long lastModified = item instanceof AbstractItem
+                            ? ((AbstractItem) item).getConfigFile().getFile().lastModified()
+                            : 0;
+                    final long fingerprint = FolderPolicyIndex.get()
+                            .resolve(item, cja.getConfiguration())
+                            .getPolicyFingerprint();
+                    Entry entry = previous.get(item.getFullName());
+                    if (null == entry || entry.lastModified != lastModified || entry.fingerprint != fingerprint) {
+                        examined.incrementAndGet();
+                        entry = new Entry(lastModified, fingerprint, isCompliant(item, configurers));
+                    }
+                    entries.put(item.getFullName(), entry);
+                } catch (RuntimeException e) {
+                    log.log(Level.WARNING, "unable to check " + item.getFullName(), e);
+                }
+            });
+            write(file.toPath(), entries);
+            final ComplianceIndex result = new ComplianceIndex(new HashMap<>(entries), examined.get());
+            last = result;
+            log.log(Level.INFO, "compliance scan: {0} items, {1} checked, {2} not compliant, in {3} ms", new Object[] {
+                result.size(),
+                result.getExamined(),
+                result.getNonCompliantItems().size(),
+                (System.nanoTime() - start) / 1_000_000
+            });
+            return result;
+        }
+    }
+
+    /**
+     * @return JSON report of the scan, with the full names of the items not complying with the policy
+     */
+    public @NonNull JSONObject toJSON() {
+        final JSONObject json = new JSONObject();
+        json.put("items", size());
+        json.put("examined", getExamined());
+        json.put("nonCompliant", JSONArray.fromObject(getNonCompliantItems()));
+        return json;
+    }
+
+    private static boolean isCompliant(Item item, List<AbstractConfigurer<?, ?>> configurers) {
+        for (AbstractConfigurer<?, ?> configurer : configurers) {
+            if (!configurer.isCompliant(item)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static @Nullable File getFile() {
+        final Jenkins jenkins = Jenkins.getInstanceOrNull();
+        return null == jenkins ? null : new File(new File(jenkins.getRootDir(), "createjobadvanced"), "compliance.idx");
+    }
+
+    private static Map<String, Entry> read(Path path) {
+        final Map<String, Entry> result = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != VERSION) {
+                return result;
+            }
+            final int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                final String fullName = in.readUTF();
+                result.put(fullName, new Entry(in.readLong(), in.readLong(), in.readBoolean()));
+            }
+        } catch (NoSuchFileException e) {
+            // first scan
+        } catch (IOException e) {
+            log.log(Level.WARNING, "ignoring unreadable compliance index " + path, e);
+            result.clear();
+        }
+        return result;
+    }
+
+    private static void write(Path path, Map<String, Entry> entries) throws IOException {
+        Files.createDirectories(path.getParent());
+        final Path tmp = Files.createTempFile(path.getParent(), "compliance", ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(VERSION);
+                out.writeInt(entries.size());
+                for (String fullName : new TreeSet<>(entries.keySet())) {
+                    final Entry entry = entries.get(fullName);
+                    out.writeUTF(fullName);
+                    out.writeLong(entry.lastModified);
+                    out.writeLong(entry.fingerprint);
+                    out.writeBoolean(entry.compliant);
+                }
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Compliance of one item.
+     */
+    private static final class Entry {
+
+        private final long lastModified;
+        private final long fingerprint;
+        private final boolean compliant;
+
+        Entry(long lastModified, long fingerprint, boolean compliant) {
+            this.lastModified = lastModified;
+            this.fingerprint = fingerprint;
+            this.compliant = compliant;
+        }
+    }
+}
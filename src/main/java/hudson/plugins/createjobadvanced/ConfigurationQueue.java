@@ -0,0 +1,297 @@
+package hudson.plugins.createjobadvanced;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import hudson.Extension;
+import hudson.init.Terminator;
+import hudson.model.Item;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.model.Jenkins;
+import jenkins.util.SystemProperties;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Bounded background queue applying plugin configuration to created items.
+ * <P>
+ * Items are dispatched by full name to single threaded stripes, so that tasks submitted for the same item are applied
+ * in order. When the stripe queue is full, the task runs synchronously on the submitting thread, unless an earlier
+ * task of the same item is still pending: it is then kept aside, and run by the stripe right after the earlier tasks
+ * of the item.
+ */
+@Extension
+public final class ConfigurationQueue {
+
+    private static final Logger log = Logger.getLogger(CreateJobAdvancedPlugin.class.getName());
+
+    /**
+     * Number of background threads
+     */
+    private static final int THREADS =
+            Math.max(1, SystemProperties.getInteger(ConfigurationQueue.class.getName() + ".threads", 4));
+
+    /**
+     * Maximum number of queued items per thread
+     */
+    private static final int CAPACITY =
+            Math.max(1, SystemProperties.getInteger(ConfigurationQueue.class.getName() + ".capacity", 256));
+
+    /**
+     * Single threaded executors, selected by item full name
+     */
+    private final ThreadPoolExecutor[] stripes;
+
+    /**
+     * Pending tasks, by item full name, guarded by itself
+     */
+    private final Map<String, Slot> pending = new HashMap<>();
+
+    /**
+     * Class constructor
+     */
+    public ConfigurationQueue() {
+        this(THREADS, CAPACITY);
+    }
+
+    /**
+     * @param threads number of background threads
+     * @param capacity maximum number of queued items per thread
+     */
+    ConfigurationQueue(int threads, int capacity) {
+        stripes = new ThreadPoolExecutor[threads];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ThreadPoolExecutor(
+                    1,
+                    1,
+                    60L,
+                    TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(capacity),
+                    new NamingThreadFactory(new DaemonThreadFactory(), "CreateJobAdvanced configuration " + i));
+            stripes[i].allowCoreThreadTimeOut(true);
+        }
+    }
+
+    /**
+     * @return the queue instance, null when Jenkins is not available
+     */
+    public static @Nullable ConfigurationQueue get() {
+        Jenkins instance = Jenkins.getInstanceOrNull();
+        if (null == instance) {
+            return null;
+        }
+        return instance.getExtensionList(ConfigurationQueue.class).get(ConfigurationQueue.class);
+    }
+
+    /**
+     * Queue given configuration task of given item. The task runs with the authentication of the calling thread.
+     * <P>
+     * When the queue of the item stripe is full, or shut down, the task runs synchronously if no earlier task of the
+     * item is pending. Otherwise it runs right after the earlier tasks of the item.
+     *
+     * @param item item to be configured
+     * @param task configuration task
+     * @return true when the task has been queued, false when it has been run synchronously
+     */
+    public boolean submit(@NonNull Item item, @NonNull Runnable task) {
+        final String key = item.getFullName();
+        final Authentication auth = Jenkins.getAuthentication2();
+        final Runnable configuration = () -> {
+            try (ACLContext ignored = ACL.as2(auth)) {
+                task.run();
+            } catch (RuntimeException e) {
+                log.log(Level.SEVERE, "error during background configuration of " + key, e);
+            }
+        };
+        final ThreadPoolExecutor stripe = getStripe(key);
+        synchronized (pending) {
+            final Slot slot = pending.computeIfAbsent(key, k -> new Slot());
+            final boolean earlier = slot.count > 0;
+            slot.count++;
+            slot.submitted++;
+            if (!slot.overflow.isEmpty() || slot.inline) {
+                // behind the tasks kept aside, or run synchronously, for this item
+                slot.overflow.add(configuration);
+                return true;
+            }
+            try {
+                stripe.execute(() -> {
+                    configuration.run();
+                    done(key, true);
+                });
+                slot.queued++;
+                return true;
+            } catch (RejectedExecutionException e) {
+                if (earlier) {
+                    log.log(Level.FINE, "configuration queue full, {0} configured after its pending tasks", key);
+                    slot.overflow.add(configuration);
+                    return true;
+                }
+                log.log(Level.FINE, "configuration queue full or shut down, configure {0} synchronously", key);
+                slot.inline = true;
+            }
+        }
+        configuration.run();
+        done(key, false);
+        return false;
+    }
+
+    /**
+     * Wait for the tasks submitted before this call for given item to be applied.
+     *
+     * @param item configured item
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void await(@NonNull Item item) throws InterruptedException {
+        synchronized (pending) {
+            final Slot slot = pending.get(item.getFullName());
+            if (null == slot) {
+                return;
+            }
+            // tasks of an item complete in submission order
+            final long submitted = slot.submitted;
+            while (slot.completed < submitted) {
+                pending.wait();
+            }
+        }
+    }
+
+    private ThreadPoolExecutor getStripe(String key) {
+        return stripes[Math.floorMod(key.hashCode(), stripes.length)];
+    }
+
+    /**
+     * Account for a completed task of given item, then run the tasks kept aside for the item, if no other task of the
+     * item is queued anymore.
+     *
+     * @param key item full name
+     * @param queued true if the completed task was queued, false if it was run synchronously
+     */
+    private void done(String key, boolean queued) {
+        Runnable next;
+        synchronized (pending) {
+            next = complete(key, queued);
+        }
+        while (null != next) {
+            next.run();
+            synchronized (pending) {
+                next = complete(key, false);
+            }
+        }
+    }
+
+    /**
+     * @return next task kept aside for given item, to be run by the calling thread
+     */
+    private Runnable complete(String key, boolean queued) {
+        final Slot slot = pending.get(key);
+        if (null == slot) {
+            return null;
+        }
+        slot.count--;
+        slot.completed++;
+        pending.notifyAll();
+        if (queued) {
+            slot.queued--;
+        }
+        if (slot.count <= 0) {
+            pending.remove(key);
+            return null;
+        }
+        if (slot.queued > 0) {
+            // tasks kept aside run after the last queued one
+            return null;
+        }
+        final Runnable next = slot.overflow.poll();
+        // a synchronous run keeps later tasks aside until it drained them
+        slot.inline = slot.inline && null != next;
+        return next;
+    }
+
+    /**
+     * @param item item to be checked
+     * @return true when given item still has a configuration task queued or running
+     */
+    public boolean isPending(@NonNull Item item) {
+        synchronized (pending) {
+            return pending.containsKey(item.getFullName());
+        }
+    }
+
+    /**
+     * @return full names of items with a configuration task queued or running
+     */
+    public @NonNull Set<String> getPendingItems() {
+        synchronized (pending) {
+            return Collections.unmodifiableSet(new TreeSet<>(pending.keySet()));
+        }
+    }
+
+    /**
+     * Stop background threads, waiting a little for queued configurations.
+     */
+    @Terminator
+    public static void shutdown() throws InterruptedException {
+        ConfigurationQueue queue = get();
+        if (null != queue) {
+            for (ThreadPoolExecutor stripe : queue.stripes) {
+                stripe.shutdown();
+            }
+            for (ThreadPoolExecutor stripe : queue.stripes) {
+                if (!stripe.awaitTermination(10, TimeUnit.SECONDS)) {
+                    log.warning("some created items have not been configured before shutdown");
+                }
+            }
+        }
+    }
+
+    /**
+     * Pending tasks of one item.
+     */
+    private static final class Slot {
+
+        /**
+         * Number of queued, running or kept aside tasks
+         */
+        private int count;
+
+        /**
+         * Number of tasks queued in the stripe
+         */
+        private int queued;
+
+        /**
+         * Number of submitted tasks
+         */
+        private long submitted;
+
+        /**
+         * Number of completed tasks
+         */
+        private long completed;
+
+        /**
+         * True while the tasks of the item run synchronously on a submitting thread
+         */
+        private boolean inline;
+
+        /**
+         * Tasks kept aside until the earlier tasks of the item are done
+         */
+        private final Deque<Runnable> overflow = new ArrayDeque<>();
+    }
+}
@@ -0,0 +1,309 @@
+package hudson.plugins.createjobadvanced;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import hudson.Extension;
+import hudson.init.InitMilestone;
+import hudson.init.Initializer;
+import hudson.init.Terminator;
+import hudson.model.Executor;
+import hudson.model.Item;
+import hudson.model.Queue;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.User;
+import hudson.model.listeners.ItemListener;
+import hudson.model.listeners.RunListener;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import hudson.security.SecurityRealm;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.model.Jenkins;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+/**
+ * Session deferring the configuration of created items until its end, when all of them are configured in parallel
+ * and saved once each.
+ * <P>
+ * Sessions are either opened explicitly, for the current thread, by bulk import scripts:
+ *
+ * <pre>
+ * try (ConfigurationSession session = ConfigurationSession.open()) {
+ *     // create items
+ * }
+ * </pre>
+ *
+ * or, when {@link PluginConfiguration#isBatchSessions()} is set, opened implicitly for builds creating items, like Job
+ * DSL seed jobs, and closed when the build completes.
+ * <P>
+ * Deferred items follow renames, and are recorded in a {@link SessionJournal}: the items of sessions interrupted by a
+ * restart are configured on next startup.
+ */
+public final class ConfigurationSession implements AutoCloseable {
+
+    private static final Logger log = Logger.getLogger(CreateJobAdvancedPlugin.class.getName());
+
+    /**
+     * Session explicitly opened by current thread
+     */
+    private static final ThreadLocal<ConfigurationSession> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Implicit sessions of running builds, by build ID
+     */
+    private static final Map<String, ConfigurationSession> BUILD_SESSIONS = new ConcurrentHashMap<>();
+
+    /**
+     * Sessions not closed yet, explicit or implicit
+     */
+    private static final Set<ConfigurationSession> OPEN = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Authentication of the creator of each deferred item, by item full name, in creation order
+     */
+    private final Map<String, Authentication> items = new LinkedHashMap<>();
+
+    /**
+     * Session ID in the journal
+     */
+    private final String id;
+
+    private final @Nullable ConfigurationSession outer;
+
+    private ConfigurationSession(@NonNull String id, @Nullable ConfigurationSession outer) {
+        this.id = id;
+        this.outer = outer;
+        OPEN.add(this);
+    }
+
+    /**
+     * Open a session for current thread, to be closed by the same thread.
+     *
+     * @return opened session
+     */
+    public static @NonNull ConfigurationSession open() {
+        ConfigurationSession session = new ConfigurationSession(UUID.randomUUID().toString(), CURRENT.get());
+        CURRENT.set(session);
+        return session;
+    }
+
+    /**
+     * @return session of current thread or build, null if item configuration must not be deferred
+     */
+    static @Nullable ConfigurationSession current() {
+        ConfigurationSession result = CURRENT.get();
+        if (null == result) {
+            final CreateJobAdvancedPlugin cja = CreateJobAdvancedPlugin.get();
+            final Executor executor = Executor.currentExecutor();
+            if (null != cja && null != executor && cja.getConfiguration().isBatchSessions()) {
+                final Queue.Executable executable = executor.getCurrentExecutable();
+                if (executable instanceof Run<?, ?>) {
+                    result = BUILD_SESSIONS.computeIfAbsent(
+                            ((Run<?, ?>) executable).getExternalizableId(), id -> new ConfigurationSession(id, null));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Defer the configuration of given created item until the end of this session.
+     *
+     * @param item created item
+     */
+    synchronized void defer(@NonNull Item item) {
+        final Authentication auth = Jenkins.getAuthentication2();
+        if (null == items.putIfAbsent(item.getFullName(), auth)) {
+            SessionJournal.deferred(id, item.getFullName(), auth.getName());
+        }
+    }
+
+    /**
+     * Follow a deferred item, or the deferred items of a folder, renamed or moved before the end of this session.
+     *
+     * @param oldFullName former item full name
+     * @param newFullName new item full name
+     */
+    private synchronized void move(String oldFullName, String newFullName) {
+        final String prefix = oldFullName + "/";
+        if (items.keySet().stream().noneMatch(key -> key.equals(oldFullName) || key.startsWith(prefix))) {
+            return;
+        }
+        // keep creation order
+        final List<Map.Entry<String, Authentication>> entries = new ArrayList<>(items.entrySet());
+        items.clear();
+        for (Map.Entry<String, Authentication> entry : entries) {
+            final String key = entry.getKey();
+            items.put(
+                    key.equals(oldFullName) || key.startsWith(prefix)
+                            ? newFullName + key.substring(oldFullName.length())
+                            : key,
+                    entry.getValue());
+        }
+    }
+
+    /**
+     * @return number of items waiting for the end of this session
+     */
+    public synchronized int size() {
+        return items.size();
+    }
+
+    /**
+     * Configure all deferred items.
+     */
+    @Override
+    public void close() {
+        if (CURRENT.get() == this) {
+            if (null == outer) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(outer);
+            }
+        }
+        flush();
+    }
+
+    private void flush() {
+        OPEN.remove(this);
+        final List<Map.Entry<String, Authentication>> deferred;
+        synchronized (this) {
+            deferred = new ArrayList<>(items.entrySet());
+            items.clear();
+        }
+        configure(deferred);
+        SessionJournal.ended(id);
+    }
+
+    private static void configure(List<Map.Entry<String, Authentication>> deferred) {
+        final ItemListenerImpl listener = ItemListener.all().get(ItemListenerImpl.class);
+        if (deferred.isEmpty() || null == listener) {
+            return;
+        }
+        final long start = System.nanoTime();
+        try {
+            ItemWorkers.forEach(deferred, entry -> configure(listener, entry));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.log(Level.WARNING, "interrupted while configuring created items", e);
+        }
+        log.log(Level.FINE, "{0} created items configured in {1} ms", new Object[] {
+            deferred.size(), (System.nanoTime() - start) / 1_000_000
+        });
+    }
+
+    private static void configure(ItemListenerImpl listener, Map.Entry<String, Authentication> entry) {
+        final Item item;
+        try (ACLContext ignored = ACL.as2(ACL.SYSTEM2)) {
+            item = Jenkins.get().getItemByFullName(entry.getKey());
+        }
+        if (null == item) {
+            log.log(Level.FINE, "{0} deleted before the end of its configuration session", entry.getKey());
+            return;
+        }
+        try (ACLContext ignored = ACL.as2(entry.getValue())) {
+            listener.configure(item);
+        } catch (RuntimeException e) {
+            log.log(Level.WARNING, "unable to configure " + entry.getKey(), e);
+        }
+    }
+
+    /**
+     * Configure the items of the sessions interrupted by a restart, as their creators.
+     */
+    @Initializer(after = InitMilestone.JOB_CONFIG_ADAPTED)
+    public static void recover() {
+        final Map<String, String> pending = SessionJournal.recover();
+        if (pending.isEmpty()) {
+            return;
+        }
+        log.log(Level.INFO, "configuring {0} items created by interrupted configuration sessions", pending.size());
+        final List<Map.Entry<String, Authentication>> deferred = new ArrayList<>();
+        for (Map.Entry<String, String> entry : pending.entrySet()) {
+            deferred.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), impersonate(entry.getValue())));
+        }
+        configure(deferred);
+    }
+
+    /**
+     * Write the journal records still buffered, so that open sessions are recovered on next startup.
+     */
+    @Terminator
+    public static void shutdown() {
+        SessionJournal.flush();
+    }
+
+    private static Authentication impersonate(String creator) {
+        if (ACL.SYSTEM_USERNAME.equals(creator)) {
+            return ACL.SYSTEM2;
+        }
+        if (ACL.ANONYMOUS_USERNAME.equals(creator)) {
+            return Jenkins.ANONYMOUS2;
+        }
+        final User user = User.getById(creator, false);
+        if (null != user) {
+            try {
+                return user.impersonate2();
+            } catch (UsernameNotFoundException e) {
+                log.log(Level.FINE, "unable to impersonate " + creator, e);
+            }
+        }
+        // enough for the creator to be granted owner rights
+        return new UsernamePasswordAuthenticationToken(
+                creator, "", Collections.singleton(SecurityRealm.AUTHENTICATED_AUTHORITY2));
+    }
+
+    /**
+     * Ends the implicit session of completed builds.
+     */
+    @Extension
+    public static final class BuildSessionListener extends RunListener<Run<?, ?>> {
+
+        @Override
+        public void onCompleted(Run<?, ?> run, @NonNull TaskListener listener) {
+            final ConfigurationSession session = BUILD_SESSIONS.remove(run.getExternalizableId());
+            if (null != session) {
+                listener.getLogger().println("Configuring " + session.size() + " created items");
+                session.flush();
+            }
+        }
+
+        @Override
+        public void onFinalized(Run<?, ?> run) {
+            // builds may end without completion notification, e.g. when aborted early
+            final ConfigurationSession session = BUILD_SESSIONS.remove(run.getExternalizableId());
+            if (null != session) {
+                session.flush();
+            }
+        }
+    }
+
+    /**
+     * Keeps deferred items in sync with renamed and moved items.
+     */
+    @Extension
+    public static final class SessionItemListener extends ItemListener {
+
+        @Override
+        public void onLocationChanged(Item item, String oldFullName, String newFullName) {
+            // the item may have been renamed again, e.g. normalized, before this notification
+            final String fullName = item.getFullName();
+            for (ConfigurationSession session : OPEN) {
+                session.move(oldFullName, fullName);
+            }
+            SessionJournal.renamed(oldFullName, fullName);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package hudson.plugins.createjobadvanced;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import hudson.PluginManager;
+import hudson.init.InitMilestone;
+import hudson.init.Initializer;
+import hudson.model.Describable;
+import hudson.model.Descriptor;
+import hudson.security.Permission;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import jenkins.model.Jenkins;
+
+/**
+ * Plugin instance, descriptors and permission visibility resolved once and shared by the configurers of all items.
+ * <P>
+ * The context is dropped when plugins are started, and rebuilt whenever a plugin or a permission is registered, e.g.
+ * when a plugin is dynamically loaded. Permission visibility is precomputed for all registered permissions, as a
+ * bitmap indexed by registration order, the first time an authorization property is used.
+ */
+public final class ConfigurerContext {
+
+    private static volatile ConfigurerContext instance;
+
+    private final @Nullable Jenkins jenkins;
+    private final int registeredPlugins;
+    private final int registeredPermissions;
+
+    private final @Nullable CreateJobAdvancedPlugin plugin;
+
+    /**
+     * Registered permissions, in registration order
+     */
+    private final List<Permission> permissions;
+
+    /**
+     * Registration index of each permission
+     */
+    private final Map<Permission, Integer> ordinals;
+
+    /**
+     * Resolved descriptors, by describable class
+     */
+    private final Map<Class<?>, Descriptor<?>> descriptors = new ConcurrentHashMap<>();
+
+    /**
+     * Shown permissions, indexed by registration index, by authorization property class
+     */
+    private final Map<Class<?>, BitSet> shownPermissions = new ConcurrentHashMap<>();
+
+    private ConfigurerContext(@Nullable Jenkins jenkins, int registeredPlugins, int registeredPermissions) {
+        this.jenkins = jenkins;
+        this.registeredPlugins = registeredPlugins;
+        this.registeredPermissions = registeredPermissions;
+        this.plugin = null == jenkins ? null : jenkins.getPlugin(CreateJobAdvancedPlugin.class);
+        this.permissions = null == jenkins ? List.of() : List.copyOf(Permission.getAll());
+        this.ordinals = new IdentityHashMap<>(permissions.size());
+        for (Permission permission : permissions) {
+            ordinals.putIfAbsent(permission, ordinals.size());
+        }
+    }
+
+    /**
+     * @return current context, rebuilt when plugins or permissions have been registered since it was built
+     */
+    public static @NonNull ConfigurerContext get() {
+        final Jenkins jenkins = Jenkins.getInstanceOrNull();
+        if (null == jenkins) {
+            return new ConfigurerContext(null, 0, 0);
+        }
+        final PluginManager pluginManager = jenkins.getPluginManager();
+        final int plugins = null == pluginManager ? 0 : pluginManager.getPlugins().size();
+        final int permissions = Permission.getAll().size();
+        ConfigurerContext result = instance;
+        if (null == result
+                || result.jenkins != jenkins
+                || result.registeredPlugins != plugins
+                || result.registeredPermissions != permissions) {
+            result = new ConfigurerContext(jenkins, plugins, permissions);
+            if (null != result.plugin) {
+                // not cached until the plugin is available
+                instance = result;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Drop the context, descriptors and permissions of all plugins are registered once plugins are started.
+     */
+    @Initializer(after = InitMilestone.PLUGINS_STARTED)
+    public static void invalidate() {
+        instance = null;
+    }
+
+    /**
+     * @return plugin instance, null when Jenkins or the plugin is not available
+     */
+    public @Nullable CreateJobAdvancedPlugin getPlugin() {
+        return plugin;
+    }
+
+    /**
+     * @param describable describable class
+     * @param type expected descriptor class
+     * @return descriptor of given describable class, null if not available
+     */
+    public @Nullable <D extends Descriptor<?>> D getDescriptor(
+            @NonNull Class<? extends Describable<?>> describable, @NonNull Class<D> type) {
+        Descriptor<?> result = descriptors.get(describable);
+        if (null == result && null != jenkins) {
+            result = jenkins.getDescriptor(describable);
+            if (null != result) {
+                descriptors.put(describable, result);
+            }
+        }
+        return type.isInstance(result) ? type.cast(result) : null;
+    }
+
+    /**
+     * Check if given permission is shown by an authorization property.
+     *
+     * @param property authorization property class
+     * @param perm Jenkins permission
+     * @param resolver actual visibility check, called for every registered permission on the first request only
+     * @return true if the permission is shown
+     */
+    public boolean showPermission(
+            @NonNull Class<?> property, @NonNull Permission perm, @NonNull Predicate<Permission> resolver) {
+        final Integer ordinal = ordinals.get(perm);
+        if (null == ordinal) {
+            // registered after this context was built
+            return resolver.test(perm);
+        }
+        return shownPermissions
+                .computeIfAbsent(property, p -> computeShownPermissions(resolver))
+                .get(ordinal);
+    }
+
+    private BitSet computeShownPermissions(Predicate<Permission> resolver) {
+        final BitSet result = new BitSet(permissions.size());
+        for (int i = 0; i < permissions.size(); i++) {
+            if (resolver.test(permissions.get(i))) {
+                result.set(i);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,114 @@
+package hudson.plugins.createjobadvanced;
+
+import hudson.Extension;
+import hudson.model.RootAction;
+import java.io.IOException;
+import jenkins.model.Jenkins;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+import org.apache.commons.io.IOUtils;
+import org.kohsuke.stapler.HttpResponse;
+import org.kohsuke.stapler.HttpResponses;
+import org.kohsuke.stapler.QueryParameter;
+import org.kohsuke.stapler.StaplerRequest2;
+import org.kohsuke.stapler.interceptor.RequirePOST;
+
+/**
+ * REST endpoints of the plugin, available under {@code /createjobadvanced/}.
+ */
+@Extension
+public class CreateJobAdvancedAction implements RootAction {
+
+    @Override
+    public String getIconFileName() {
+        return null;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Create Job Advanced";
+    }
+
+    @Override
+    public String getUrlName() {
+        return "createjobadvanced";
+    }
+
+    /**
+     * Apply current plugin configuration again to existing items.
+     *
+     * @param dryRun true to only report items which would be updated
+     * @param threads number of worker threads, 0 for the number of processors
+     * @param rate maximum number of items processed per second, 0 for no limit
+     * @param folder full name of the folder to be processed, all items if empty
+     * @param nonCompliant true to only process items reported as not compliant by the last compliance scan
+     * @return JSON summary of the run
+     * @throws InterruptedException if interrupted while waiting for workers
+     */
+    @RequirePOST
+    public HttpResponse doReapply(
+            @QueryParameter boolean dryRun,
+            @QueryParameter int threads,
+            @QueryParameter int rate,
+            @QueryParameter String folder,
+            @QueryParameter boolean nonCompliant)
+            throws InterruptedException {
+        Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+        PolicyReapplier reapplier = new PolicyReapplier()
+                .withDryRun(dryRun)
+                .withMaxRate(rate)
+                .withFolder(folder)
+                .withNonCompliantOnly(nonCompliant);
+        if (threads > 0) {
+            reapplier.withParallelism(threads);
+        }
+        return HttpResponses.okJSON(reapplier.run().toJSON());
+    }
+
+    /**
+     * Create a batch of items with plugin configuration applied, see {@link BatchItemCreator}.
+     * <P>
+     * The request body is a JSON object holding the {@code items} definitions array.
+     *
+     * @param req request
+     * @return JSON summary with the result of each item
+     * @throws IOException if the request body cannot be read
+     */
+    @RequirePOST
+    public HttpResponse doCreateItems(StaplerRequest2 req) throws IOException {
+        Jenkins.get().checkPermission(Jenkins.READ);
+        JSONObject body = JSONObject.fromObject(IOUtils.toString(req.getReader()));
+        JSONArray items = body.optJSONArray("items");
+        return HttpResponses.okJSON(new BatchItemCreator().create(null == items ? new JSONArray() : items));
+    }
+
+    /**
+     * @return JSON counters and latency percentiles of item configuration phases
+     */
+    public HttpResponse doMetrics() {
+        Jenkins.get().checkPermission(Jenkins.SYSTEM_READ);
+        return HttpResponses.okJSON(CreationMetrics.get().toJSON());
+    }
+
+    /**
+     * @return JSON report of the last compliance scan, with the items not complying with the plugin policy
+     */
+    public HttpResponse doCompliance() {
+        Jenkins.get().checkPermission(Jenkins.SYSTEM_READ);
+        ComplianceIndex index = ComplianceIndex.get();
+        JSONObject json = null == index ? new JSONObject() : index.toJSON();
+        json.put("scanned", null != index);
+        return HttpResponses.okJSON(json);
+    }
+
+    /**
+     * @return JSON list of created items waiting for their background configuration
+     */
+    public HttpResponse doPending() {
+        Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+        JSONObject json = new JSONObject();
+        ConfigurationQueue queue = ConfigurationQueue.get();
+        json.put("items", null == queue ? new JSONArray() : JSONArray.fromObject(queue.getPendingItems()));
+        return HttpResponses.okJSON(json);
+    }
+}
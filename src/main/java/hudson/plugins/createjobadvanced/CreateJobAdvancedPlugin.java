@@ -4,19 +4,15 @@ import edu.umd.cs.findbugs.annotations.Nullable;
 import hudson.Plugin;
 import hudson.model.Descriptor.FormException;
 import hudson.security.Permission;
-import hudson.security.PermissionGroup;
 import jakarta.servlet.ServletException;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 import net.sf.json.JSONArray;
 import net.sf.json.JSONObject;
-import org.apache.commons.lang.StringUtils;
 import org.kohsuke.stapler.StaplerRequest2;
 
 /**
@@ -30,6 +26,7 @@ public class CreateJobAdvancedPlugin extends Plugin {
     private boolean autoOwnerRights;
     private boolean autoPublicBrowse;
     private boolean replaceSpace;
+    private boolean normalizeNameOnRequest;
 
     private boolean activeLogRotator;
     private int daysToKeep = -1;
@@ -43,18 +40,34 @@ public class CreateJobAdvancedPlugin extends Plugin {
     private boolean mvnArchivingDisabled;
     private boolean mvnPerModuleEmail;
 
-    private final List<DynamicPermissionConfig> dynamicPermissionConfigs = new ArrayList<>();
+    private boolean asyncConfiguration;
+    private boolean batchSessions;
+    private boolean recomputeOnMove;
+
+    private List<DynamicPermissionConfig> dynamicPermissionConfigs = new ArrayList<>();
+
+    /**
+     * Immutable snapshot of the configuration above, published atomically after each load or save
+     */
+    private transient volatile PluginConfiguration configuration;
 
     /**
      * @return the dynamicPermissionConfigs
      */
     public List<DynamicPermissionConfig> getDynamicPermissionConfigs() {
-        return dynamicPermissionConfigs;
+        return getConfiguration().getDynamicPermissionConfigs();
     }
 
     @Deprecated
     public CreateJobAdvancedPlugin() {}
 
+    /**
+     * @return plugin instance, null when Jenkins or the plugin is not available
+     */
+    public static @Nullable CreateJobAdvancedPlugin get() {
+        return ConfigurerContext.get().getPlugin();
+    }
+
     @Override
     public void start() throws Exception {
         super.start();
@@ -63,15 +76,71 @@ public class CreateJobAdvancedPlugin extends Plugin {
     }
 
     @Override
-    public void configure(StaplerRequest2 req, JSONObject formData)
+    protected synchronized void load() throws IOException {
+        super.load();
+        publishConfiguration();
+    }
+
+    /**
+     * Item listeners must read the configuration through this snapshot, which is never modified once published.
+     *
+     * @return current configuration snapshot
+     */
+    public PluginConfiguration getConfiguration() {
+        PluginConfiguration result = configuration;
+        if (null == result) {
+            synchronized (this) {
+                result = configuration;
+                if (null == result) {
+                    result = publishConfiguration();
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Replace the configuration snapshot with a new one built from current fields.
+     *
+     * @return published configuration snapshot
+     */
+    private PluginConfiguration publishConfiguration() {
+        PluginConfiguration result = new PluginConfiguration(
+                autoOwnerRights,
+                autoPublicBrowse,
+                replaceSpace,
+                normalizeNameOnRequest,
+                activeLogRotator,
+                daysToKeep,
+                numToKeep,
+                artifactDaysToKeep,
+                artifactNumToKeep,
+                activeDynamicPermissions,
+                extractPattern,
+                mvnArchivingDisabled,
+                mvnPerModuleEmail,
+                asyncConfiguration,
+                batchSessions,
+                recomputeOnMove,
+                dynamicPermissionConfigs);
+        configuration = result;
+        return result;
+    }
+
+    @Override
+    public synchronized void configure(StaplerRequest2 req, JSONObject formData)
             throws IOException, ServletException, FormException {
 
         autoOwnerRights = formData.optBoolean("security", false);
         autoPublicBrowse = formData.optBoolean("public", false);
         replaceSpace = formData.optBoolean("jobspacesinname", false);
+        normalizeNameOnRequest = formData.optBoolean("normalizeNameOnRequest", false);
 
         mvnArchivingDisabled = formData.optBoolean("mvnArchivingDisabled", false);
         mvnPerModuleEmail = formData.optBoolean("mvnPerModuleEmail", false);
+        asyncConfiguration = formData.optBoolean("asyncConfiguration", false);
+        batchSessions = formData.optBoolean("batchSessions", false);
+        recomputeOnMove = formData.optBoolean("recomputeOnMove", false);
 
         final JSONObject activeLogRotatorJson = formData.optJSONObject("activeLogRotator");
 
@@ -91,35 +160,39 @@ public class CreateJobAdvancedPlugin extends Plugin {
             activeDynamicPermissions = true;
             extractPattern = activeDynamicPermissionsJson.optString("extractPattern", "");
 
-            dynamicPermissionConfigs.clear();
+            // never modify the published list in place, readers may be iterating it
+            final List<DynamicPermissionConfig> newConfigs = new ArrayList<>();
             final Object cfgs = activeDynamicPermissionsJson.get("cfgs");
             if (cfgs instanceof JSONArray) {
                 final JSONArray jsonArray = (JSONArray) cfgs;
                 for (Object object : jsonArray) {
-                    addDynamicPermission(req, (JSONObject) object);
+                    newConfigs.add(createDynamicPermission(req, (JSONObject) object));
                 }
             } else {
                 // there might be only one single dynamic permission
-                addDynamicPermission(req, (JSONObject) cfgs);
+                newConfigs.add(createDynamicPermission(req, (JSONObject) cfgs));
             }
+            dynamicPermissionConfigs = newConfigs;
 
         } else {
             activeDynamicPermissions = false;
             extractPattern = null;
-            dynamicPermissionConfigs.clear();
+            dynamicPermissionConfigs = new ArrayList<>();
         }
+        publishConfiguration();
 
         save();
     }
 
     /**
-     * adds a dynamic permission configuration with the data extracted form the
+     * creates a dynamic permission configuration with the data extracted form the
      * jsonObject.
      *
      * @param req
      * @param jsonObject
+     * @return created dynamic permission configuration
      */
-    private void addDynamicPermission(StaplerRequest2 req, JSONObject jsonObject) {
+    static DynamicPermissionConfig createDynamicPermission(StaplerRequest2 req, JSONObject jsonObject) {
         final DynamicPermissionConfig dynPerm = req.bindJSON(DynamicPermissionConfig.class, jsonObject);
 
         // add the enabled permission ids
@@ -134,56 +207,31 @@ public class CreateJobAdvancedPlugin extends Plugin {
             }
         }
 
-        dynamicPermissionConfigs.add(dynPerm);
+        return dynPerm;
     }
 
     /**
-     *
-     * @return
+     * @return compiled dynamic permission rules of current configuration
      */
-    public static Map<String, List<Permission>> getAllPossiblePermissions() {
-        final Map<String, List<Permission>> enabledPerms = new TreeMap<>();
-
-        addEnabledPermissionsForGroup(enabledPerms, hudson.model.Item.class);
-        addEnabledPermissionsForGroup(enabledPerms, hudson.model.Run.class);
-
-        return enabledPerms;
+    public DynamicPermissionRules getDynamicPermissionRules() {
+        return getConfiguration().getDynamicPermissionRules();
     }
 
     /**
      *
-     * @param p
-     * @return
+     * @return enabled item and run permissions by permission group title, not to be modified
      */
-    public static String impliedByList(@Nullable Permission p) {
-        List<Permission> impliedBys = new ArrayList<>();
-        while (null != p && null != p.impliedBy) {
-            p = p.impliedBy;
-            impliedBys.add(p);
-        }
-        return StringUtils.join(impliedBys.stream().map(Permission::getId).collect(Collectors.toList()), " ");
+    public static Map<String, List<Permission>> getAllPossiblePermissions() {
+        return PermissionCatalog.get().getPermissions();
     }
 
     /**
      *
-     * @param allEnabledPerms
-     * @param owner
+     * @param p
+     * @return space separated IDs of the permissions implying given permission
      */
-    private static void addEnabledPermissionsForGroup(
-            final Map<String, List<Permission>> allEnabledPerms, Class<?> owner) {
-        final PermissionGroup permissionGroup = PermissionGroup.get(owner);
-        if (permissionGroup != null) {
-            final List<Permission> enabledPerms = new ArrayList<>();
-            List<Permission> permissions = permissionGroup.getPermissions();
-            for (Permission permission : permissions) {
-                if (permission.enabled) {
-                    enabledPerms.add(permission);
-                }
-            }
-            if (!enabledPerms.isEmpty()) {
-                allEnabledPerms.put(permissionGroup.title.toString(), enabledPerms);
-            }
-        }
+    public static String impliedByList(@Nullable Permission p) {
+        return PermissionCatalog.get().getImpliedByList(p);
     }
 
     /**
@@ -191,7 +239,7 @@ public class CreateJobAdvancedPlugin extends Plugin {
      * @return true when automatic owner right assigment  option is activated
      */
     public boolean isAutoOwnerRights() {
-        return autoOwnerRights;
+        return getConfiguration().isAutoOwnerRights();
     }
 
     /**
@@ -199,7 +247,7 @@ public class CreateJobAdvancedPlugin extends Plugin {
      * @return true when automatic public browse assigment option is activated
      */
     public boolean isAutoPublicBrowse() {
-        return autoPublicBrowse;
+        return getConfiguration().isAutoPublicBrowse();
     }
 
     /**
@@ -207,7 +255,15 @@ public class CreateJobAdvancedPlugin extends Plugin {
      * @return true when replace space option is activated
      */
     public boolean isReplaceSpace() {
-        return replaceSpace;
+        return getConfiguration().isReplaceSpace();
+    }
+
+    /**
+     *
+     * @return true when spaces are replaced in create item requests, before the item is created
+     */
+    public boolean isNormalizeNameOnRequest() {
+        return getConfiguration().isNormalizeNameOnRequest();
     }
 
     /**
@@ -215,7 +271,7 @@ public class CreateJobAdvancedPlugin extends Plugin {
      * @return true when log rotator option is activated
      */
     public boolean isActiveLogRotator() {
-        return activeLogRotator;
+        return getConfiguration().isActiveLogRotator();
     }
 
     /**
@@ -223,7 +279,7 @@ public class CreateJobAdvancedPlugin extends Plugin {
      * @return the days to keep builds
      */
     public int getDaysToKeep() {
-        return daysToKeep;
+        return getConfiguration().getDaysToKeep();
     }
 
     /**
@@ -231,7 +287,7 @@ public class CreateJobAdvancedPlugin extends Plugin {
      * @return the number of build to be kept
      */
     public int getNumToKeep() {
-        return numToKeep;
+        return getConfiguration().getNumToKeep();
     }
 
     /**
@@ -239,7 +295,7 @@ public class CreateJobAdvancedPlugin extends Plugin {
      * @return the days to keep build artifacts
      */
     public int getArtifactDaysToKeep() {
-        return artifactDaysToKeep;
+        return getConfiguration().getArtifactDaysToKeep();
     }
 
     /**
@@ -247,21 +303,21 @@ public class CreateJobAdvancedPlugin extends Plugin {
      * @return the number of build to keep with artifacts
      */
     public int getArtifactNumToKeep() {
-        return artifactNumToKeep;
+        return getConfiguration().getArtifactNumToKeep();
     }
 
     /**
      * @return the extractPattern
      */
     public String getExtractPattern() {
-        return extractPattern;
+        return getConfiguration().getExtractPattern();
     }
 
     /**
      * @return the activeDynamicPermissions
      */
     public boolean isActiveDynamicPermissions() {
-        return activeDynamicPermissions;
+        return getConfiguration().isActiveDynamicPermissions();
     }
 
     /**
@@ -269,7 +325,7 @@ public class CreateJobAdvancedPlugin extends Plugin {
      * @return
      */
     public boolean isMvnArchivingDisabled() {
-        return mvnArchivingDisabled;
+        return getConfiguration().isMvnArchivingDisabled();
     }
 
     /**
@@ -277,6 +333,30 @@ public class CreateJobAdvancedPlugin extends Plugin {
      * @return
      */
     public boolean isMvnPerModuleEmail() {
-        return mvnPerModuleEmail;
+        return getConfiguration().isMvnPerModuleEmail();
+    }
+
+    /**
+     *
+     * @return true when created items are configured in background
+     */
+    public boolean isAsyncConfiguration() {
+        return getConfiguration().isAsyncConfiguration();
+    }
+
+    /**
+     *
+     * @return true when the configuration of items created by builds is deferred until the build ends
+     */
+    public boolean isBatchSessions() {
+        return getConfiguration().isBatchSessions();
+    }
+
+    /**
+     *
+     * @return true when the dynamic permissions of renamed or moved items are recomputed
+     */
+    public boolean isRecomputeOnMove() {
+        return getConfiguration().isRecomputeOnMove();
     }
 }
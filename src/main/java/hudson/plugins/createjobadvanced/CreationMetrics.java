@@ -0,0 +1,306 @@
+package hudson.plugins.createjobadvanced;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Extension;
+import hudson.XmlFile;
+import hudson.init.InitMilestone;
+import hudson.init.Initializer;
+import hudson.init.Terminator;
+import hudson.model.Item;
+import hudson.model.Saveable;
+import hudson.model.listeners.SaveableListener;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import net.sf.json.JSONObject;
+
+/**
+ * Low overhead counters and latency histograms of item configuration phases.
+ * <P>
+ * Exposed as JSON by {@link CreateJobAdvancedAction} and through JMX as
+ * {@code hudson.plugins.createjobadvanced:type=CreationMetrics}.
+ */
+public final class CreationMetrics implements CreationMetricsMXBean {
+
+    private static final Logger log = Logger.getLogger(CreateJobAdvancedPlugin.class.getName());
+
+    /**
+     * JMX name of the metrics
+     */
+    private static final String OBJECT_NAME = "hudson.plugins.createjobadvanced:type=CreationMetrics";
+
+    /**
+     * Plugin metrics
+     */
+    private static final CreationMetrics INSTANCE = new CreationMetrics();
+
+    /**
+     * Configuration depth of current thread, saves are counted when positive
+     */
+    private static final ThreadLocal<int[]> DEPTH = new ThreadLocal<>();
+
+    /**
+     * Measured phases of item configuration.
+     */
+    public enum Phase {
+        /** whole configuration of a created item */
+        CREATE,
+        /** replacement of spaces in item name */
+        RENAME,
+        /** owner rights planning */
+        OWNER_GRANT,
+        /** anonymous rights planning */
+        PUBLIC_GRANT,
+        /** dynamic group rights planning */
+        DYNAMIC_GRANT,
+        /** authorization matrix update */
+        PERMISSION_APPLY,
+        /** default log rotator */
+        LOG_ROTATOR,
+        /** Maven job defaults */
+        MAVEN
+    }
+
+    private final Map<Phase, Histogram> histograms = new EnumMap<>(Phase.class);
+    private final Map<Phase, LongAdder> skips = new EnumMap<>(Phase.class);
+    private final LongAdder saves = new LongAdder();
+
+    private CreationMetrics() {
+        for (Phase phase : Phase.values()) {
+            histograms.put(phase, new Histogram());
+            skips.put(phase, new LongAdder());
+        }
+    }
+
+    /**
+     * @return plugin metrics
+     */
+    public static @NonNull CreationMetrics get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Record the duration of given phase.
+     *
+     * @param phase measured phase
+     * @param startNanos {@link System#nanoTime()} at the beginning of the phase
+     */
+    public static void record(@NonNull Phase phase, long startNanos) {
+        INSTANCE.histograms.get(phase).record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Record that given phase left an item unchanged, as it already complied with the configuration.
+     *
+     * @param phase skipped phase
+     */
+    public static void recordSkip(@NonNull Phase phase) {
+        INSTANCE.skips.get(phase).increment();
+    }
+
+    /**
+     * Mark the beginning of an item configuration on current thread.
+     *
+     * @return {@link System#nanoTime()} to be given back to {@link #endConfiguration(long)}
+     */
+    public static long beginConfiguration() {
+        int[] depth = DEPTH.get();
+        if (null == depth) {
+            depth = new int[1];
+            DEPTH.set(depth);
+        }
+        depth[0]++;
+        return System.nanoTime();
+    }
+
+    /**
+     * Mark the end of an item configuration on current thread.
+     *
+     * @param startNanos value returned by {@link #beginConfiguration()}
+     */
+    public static void endConfiguration(long startNanos) {
+        record(Phase.CREATE, startNanos);
+        int[] depth = DEPTH.get();
+        if (null == depth || --depth[0] <= 0) {
+            DEPTH.remove();
+        }
+    }
+
+    @Override
+    public long getCreations() {
+        return histograms.get(Phase.CREATE).getCount();
+    }
+
+    @Override
+    public long getSaves() {
+        return saves.sum();
+    }
+
+    @Override
+    public Map<String, Long> getCounts() {
+        Map<String, Long> result = new TreeMap<>();
+        histograms.forEach((phase, histogram) -> result.put(phase.name(), histogram.getCount()));
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getSkips() {
+        Map<String, Long> result = new TreeMap<>();
+        skips.forEach((phase, skip) -> result.put(phase.name(), skip.sum()));
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getP50Micros() {
+        return getPercentileMicros(0.50);
+    }
+
+    @Override
+    public Map<String, Long> getP99Micros() {
+        return getPercentileMicros(0.99);
+    }
+
+    @Override
+    public Map<String, Long> getMaxMicros() {
+        Map<String, Long> result = new TreeMap<>();
+        histograms.forEach(
+                (phase, histogram) -> result.put(phase.name(), TimeUnit.NANOSECONDS.toMicros(histogram.getMax())));
+        return result;
+    }
+
+    private Map<String, Long> getPercentileMicros(double percentile) {
+        Map<String, Long> result = new TreeMap<>();
+        histograms.forEach((phase, histogram) ->
+                result.put(phase.name(), TimeUnit.NANOSECONDS.toMicros(histogram.getPercentile(percentile))));
+        return result;
+    }
+
+    /**
+     * @return JSON representation of the metrics
+     */
+    public @NonNull JSONObject toJSON() {
+        JSONObject phases = new JSONObject();
+        histograms.forEach((phase, histogram) -> {
+            JSONObject json = new JSONObject();
+            json.put("count", histogram.getCount());
+            json.put("skipped", skips.get(phase).sum());
+            json.put("totalMicros", TimeUnit.NANOSECONDS.toMicros(histogram.getTotal()));
+            json.put("p50Micros", TimeUnit.NANOSECONDS.toMicros(histogram.getPercentile(0.50)));
+            json.put("p99Micros", TimeUnit.NANOSECONDS.toMicros(histogram.getPercentile(0.99)));
+            json.put("maxMicros", TimeUnit.NANOSECONDS.toMicros(histogram.getMax()));
+            phases.put(phase.name(), json);
+        });
+        JSONObject result = new JSONObject();
+        result.put("creations", getCreations());
+        result.put("saves", getSaves());
+        result.put("phases", phases);
+        return result;
+    }
+
+    @Initializer(after = InitMilestone.PLUGINS_STARTED)
+    public static void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(INSTANCE, name);
+            }
+        } catch (JMException e) {
+            log.log(Level.WARNING, "unable to register plugin metrics MBean", e);
+        }
+    }
+
+    @Terminator
+    public static void unregisterMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            log.log(Level.FINE, "unable to unregister plugin metrics MBean", e);
+        }
+    }
+
+    /**
+     * Counts item saves done while configuring an item.
+     */
+    @Extension
+    public static final class SaveCounter extends SaveableListener {
+
+        @Override
+        public void onChange(Saveable o, XmlFile file) {
+            int[] depth = DEPTH.get();
+            if (o instanceof Item && null != depth && depth[0] > 0) {
+                INSTANCE.saves.increment();
+            }
+        }
+    }
+
+    /**
+     * Lock-free histogram with power of two nanosecond buckets.
+     */
+    static final class Histogram {
+
+        private final AtomicLongArray buckets = new AtomicLongArray(Long.SIZE);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+        void record(long nanos) {
+            long value = Math.max(0L, nanos);
+            buckets.incrementAndGet(Long.SIZE - 1 - Long.numberOfLeadingZeros(Math.max(1L, value)));
+            count.increment();
+            total.add(value);
+            max.accumulate(value);
+        }
+
+        long getCount() {
+            return count.sum();
+        }
+
+        long getTotal() {
+            return total.sum();
+        }
+
+        long getMax() {
+            return max.get();
+        }
+
+        /**
+         * @param percentile percentile between 0 and 1
+         * @return upper bound of the bucket holding given percentile, in nanoseconds
+         */
+        long getPercentile(double percentile) {
+            long[] snapshot = new long[buckets.length()];
+            long recorded = 0;
+            for (int i = 0; i < snapshot.length; i++) {
+                snapshot[i] = buckets.get(i);
+                recorded += snapshot[i];
+            }
+            if (recorded == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(percentile * recorded);
+            long seen = 0;
+            for (int i = 0; i < snapshot.length; i++) {
+                seen += snapshot[i];
+                if (seen >= rank) {
+                    return Math.min(getMax(), i >= Long.SIZE - 2 ? Long.MAX_VALUE : (2L << i) - 1);
+                }
+            }
+            return getMax();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package hudson.plugins.createjobadvanced;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link CreationMetrics}. Maps are keyed by {@link CreationMetrics.Phase} name.
+ */
+public interface CreationMetricsMXBean {
+
+    /**
+     * @return number of configured items
+     */
+    long getCreations();
+
+    /**
+     * @return number of item saves done while configuring items
+     */
+    long getSaves();
+
+    /**
+     * @return number of measures by phase
+     */
+    Map<String, Long> getCounts();
+
+    /**
+     * @return number of items left unchanged by phase, as they already complied with the configuration
+     */
+    Map<String, Long> getSkips();
+
+    /**
+     * @return median duration by phase, in microseconds
+     */
+    Map<String, Long> getP50Micros();
+
+    /**
+     * @return 99th percentile duration by phase, in microseconds
+     */
+    Map<String, Long> getP99Micros();
+
+    /**
+     * @return maximum duration by phase, in microseconds
+     */
+    Map<String, Long> getMaxMicros();
+}
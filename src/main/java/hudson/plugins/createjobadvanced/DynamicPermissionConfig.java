@@ -1,15 +1,24 @@
 package hudson.plugins.createjobadvanced;
 
 import hudson.security.Permission;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
 
 public class DynamicPermissionConfig {
     private String groupFormat = null;
 
     private Set<String> checkedPermissionIds = new HashSet<>();
 
+    private String extractPattern = null;
+
+    /**
+     * True for the immutable copies published with configuration snapshots
+     */
+    private transient boolean frozen;
+
     @DataBoundConstructor
     public DynamicPermissionConfig(String groupFormat, Set<String> checkedPermissionIds) {
         this.groupFormat = groupFormat;
@@ -18,6 +27,20 @@ public class DynamicPermissionConfig {
         }
     }
 
+    private DynamicPermissionConfig(DynamicPermissionConfig config) {
+        this.groupFormat = config.groupFormat;
+        this.checkedPermissionIds = Collections.unmodifiableSet(new HashSet<>(config.checkedPermissionIds));
+        this.extractPattern = config.extractPattern;
+        this.frozen = true;
+    }
+
+    /**
+     * @return immutable copy of this definition, not affected by later changes of this one
+     */
+    DynamicPermissionConfig freeze() {
+        return frozen ? this : new DynamicPermissionConfig(this);
+    }
+
     /**
      * Add given permission ID to checked permission set.
      *
@@ -34,6 +57,25 @@ public class DynamicPermissionConfig {
         return groupFormat;
     }
 
+    /**
+     * @return pattern used to extract groups from item names for this definition, null to use the global pattern
+     */
+    public String getExtractPattern() {
+        return extractPattern;
+    }
+
+    /**
+     * @param extractPattern pattern used to extract groups from item names for this definition, null or empty to use
+     *            the global pattern
+     */
+    @DataBoundSetter
+    public void setExtractPattern(String extractPattern) {
+        if (frozen) {
+            throw new UnsupportedOperationException("published dynamic permission definitions are immutable");
+        }
+        this.extractPattern = null == extractPattern || extractPattern.isEmpty() ? null : extractPattern;
+    }
+
     /**
      * @return the checked permission IDs set
      */
@@ -53,6 +95,7 @@ public class DynamicPermissionConfig {
 
     @Override
     public String toString() {
-        return "[DynamicPermissionConfig: " + groupFormat + ", permissions: " + checkedPermissionIds + "]";
+        return "[DynamicPermissionConfig: " + groupFormat + ", permissions: " + checkedPermissionIds
+                + (null == extractPattern ? "" : ", pattern: " + extractPattern) + "]";
     }
 }
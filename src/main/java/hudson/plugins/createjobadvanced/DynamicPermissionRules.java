@@ -0,0 +1,312 @@
+package hudson.plugins.createjobadvanced;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import hudson.security.Permission;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import jenkins.model.Jenkins;
+
+/**
+ * Compiled form of the dynamic permission configuration.
+ * <P>
+ * Extract patterns, group formats and permission IDs are parsed once, when the configuration changes, instead of once
+ * per created item.
+ * <P>
+ * Definitions may have their own extract pattern. Each distinct pattern is evaluated at most once per item name.
+ * Patterns starting with a literal prefix are indexed by its first character, and are only evaluated when the name
+ * holds that prefix, so that adding definitions for other name prefixes does not slow down item creation.
+ */
+public final class DynamicPermissionRules {
+
+    private static final Logger log = Logger.getLogger(CreateJobAdvancedPlugin.class.getName());
+
+    private static final String[] NO_GROUP = new String[0];
+
+    /**
+     * Regular expression characters which cannot be part of a literal prefix
+     */
+    private static final String META_CHARACTERS = ".[]()*+?{}^$|";
+
+    /**
+     * Extractor of the global pattern, its rules are applied even when the name does not match
+     */
+    private final Extractor global;
+
+    /**
+     * Extractors of anchored patterns, by first character of their literal prefix
+     */
+    private final Map<Character, List<Extractor>> byFirstCharacter;
+
+    /**
+     * Extractors of other definition patterns
+     */
+    private final List<Extractor> others;
+
+    private final int size;
+
+    private DynamicPermissionRules(
+            Extractor global, Map<Character, List<Extractor>> byFirstCharacter, List<Extractor> others, int size) {
+        this.global = global;
+        this.byFirstCharacter = byFirstCharacter;
+        this.others = others;
+        this.size = size;
+    }
+
+    /**
+     * Compile given dynamic permission configuration.
+     *
+     * @param extractPattern pattern used to extract groups from item names
+     * @param configs dynamic permission configurations
+     * @return compiled rules
+     */
+    public static @NonNull DynamicPermissionRules compile(
+            @Nullable String extractPattern, @NonNull List<DynamicPermissionConfig> configs) {
+        Map<String, Permission> knownPermissions = new HashMap<>();
+        for (Permission permission : Permission.getAll()) {
+            knownPermissions.put(permission.getId(), permission);
+        }
+
+        Extractor global = new Extractor(extractPattern, false);
+        Map<String, Extractor> extractors = new LinkedHashMap<>();
+        int size = 0;
+        for (DynamicPermissionConfig dpc : configs) {
+            if (null == dpc.getGroupFormat()) {
+                log.log(Level.WARNING, "skip dynamic permission without group format: {0}", dpc);
+                continue;
+            }
+            List<Permission> permissionList = new ArrayList<>();
+            for (String id : dpc.getCheckedPermissionIds()) {
+                final Permission permForId = resolvePermission(knownPermissions, id);
+                if (null != permForId) {
+                    permissionList.add(permForId);
+                } else {
+                    log.log(Level.FINE, "skip unknown permission: {0}", id);
+                }
+            }
+            Extractor extractor = null == dpc.getExtractPattern()
+                    ? global
+                    : extractors.computeIfAbsent(dpc.getExtractPattern(), regex -> new Extractor(regex, true));
+            extractor.rules.add(
+                    new Rule(new MessageFormat(dpc.getGroupFormat()), permissionList.toArray(Permission[]::new)));
+            size++;
+        }
+
+        Map<Character, List<Extractor>> byFirstCharacter = new HashMap<>();
+        List<Extractor> others = new ArrayList<>();
+        for (Extractor extractor : extractors.values()) {
+            if (null == extractor.pattern) {
+                // invalid pattern, its rules never apply
+                continue;
+            }
+            if (extractor.anchored && null != extractor.literal) {
+                byFirstCharacter
+                        .computeIfAbsent(extractor.literal.charAt(0), c -> new ArrayList<>())
+                        .add(extractor);
+            } else {
+                others.add(extractor);
+            }
+        }
+        return new DynamicPermissionRules(global, byFirstCharacter, others, size);
+    }
+
+    /**
+     * Resolve given permission ID, loading its owner class only when it is not registered yet.
+     *
+     * @param knownPermissions registered permissions, by ID
+     * @param id permission ID
+     * @return permission of given ID, null if unknown
+     */
+    private static @Nullable Permission resolvePermission(Map<String, Permission> knownPermissions, String id) {
+        Permission result = knownPermissions.get(id);
+        if (null == result && null != Jenkins.getInstanceOrNull()) {
+            result = Permission.fromId(id);
+        }
+        return result;
+    }
+
+    /**
+     * Add dynamic group permissions for given item name to given plan.
+     *
+     * @param plan permission plan to be completed
+     * @param itemName name of the item to be granted
+     */
+    public void plan(@NonNull PermissionPlan plan, @NonNull String itemName) {
+        global.plan(plan, itemName);
+        for (Extractor extractor : others) {
+            extractor.plan(plan, itemName);
+        }
+        if (!itemName.isEmpty()) {
+            List<Extractor> candidates = byFirstCharacter.get(itemName.charAt(0));
+            if (null != candidates) {
+                for (Extractor extractor : candidates) {
+                    extractor.plan(plan, itemName);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return number of compiled group rules
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Literal text every match of given pattern starts with, used to skip patterns which cannot match.
+     *
+     * @param regex regular expression, optionally anchored with {@code ^}
+     * @return literal prefix, null when the pattern does not start with a literal or uses alternations
+     */
+    static @Nullable String literalPrefix(@NonNull String regex) {
+        if (regex.indexOf('|') >= 0) {
+            return null;
+        }
+        final StringBuilder result = new StringBuilder();
+        int i = regex.startsWith("^") ? 1 : 0;
+        while (i < regex.length()) {
+            final char c = regex.charAt(i);
+            final char literal;
+            if (c == '\\') {
+                if (i + 1 >= regex.length() || Character.isLetterOrDigit(regex.charAt(i + 1))) {
+                    break;
+                }
+                literal = regex.charAt(i + 1);
+                i += 2;
+            } else if (META_CHARACTERS.indexOf(c) >= 0) {
+                break;
+            } else {
+                literal = c;
+                i++;
+            }
+            if (i < regex.length() && "*?{".indexOf(regex.charAt(i)) >= 0) {
+                // optional or repeated character
+                break;
+            }
+            result.append(literal);
+            if (i < regex.length() && regex.charAt(i) == '+') {
+                break;
+            }
+        }
+        return result.length() == 0 ? null : result.toString();
+    }
+
+    /**
+     * One compiled extract pattern and the rules using its groups.
+     */
+    private static final class Extractor {
+
+        /**
+         * Compiled extract pattern, null when no pattern is configured or when it is invalid
+         */
+        private final @Nullable Pattern pattern;
+
+        /**
+         * Literal every match starts with, null if unknown
+         */
+        private final @Nullable String literal;
+
+        /**
+         * True when the pattern only matches at the beginning of the name
+         */
+        private final boolean anchored;
+
+        /**
+         * True when rules only apply to names matching the pattern
+         */
+        private final boolean requireMatch;
+
+        private final List<Rule> rules = new ArrayList<>();
+
+        Extractor(@Nullable String regex, boolean requireMatch) {
+            Pattern compiled = null;
+            if (null != regex) {
+                try {
+                    compiled = Pattern.compile(regex);
+                } catch (PatternSyntaxException e) {
+                    log.log(Level.SEVERE, "invalid extract pattern: " + regex, e);
+                }
+            }
+            this.pattern = compiled;
+            this.literal = null == compiled ? null : literalPrefix(regex);
+            this.anchored = null != compiled && regex.startsWith("^");
+            this.requireMatch = requireMatch;
+        }
+
+        void plan(PermissionPlan plan, String itemName) {
+            if (rules.isEmpty()) {
+                return;
+            }
+            String[] groups = extractGroups(itemName);
+            if (requireMatch && groups.length == 0) {
+                return;
+            }
+            for (Rule rule : rules) {
+                final String newName = rule.formatGroup(groups);
+                log.log(Level.FINEST, "add perms for group: {0}", newName);
+                plan.grant(PermissionEntries.group(newName), rule.permissions);
+            }
+        }
+
+        /**
+         * Extract groups of given item name according to the extract pattern.
+         *
+         * @param itemName item name to be parsed
+         * @return matched groups, empty if the name does not match
+         */
+        private String[] extractGroups(String itemName) {
+            if (null == pattern) {
+                return NO_GROUP;
+            }
+            if (null != literal && (anchored ? !itemName.startsWith(literal) : !itemName.contains(literal))) {
+                return NO_GROUP;
+            }
+            Matcher matcher = pattern.matcher(itemName);
+            if (!matcher.find()) {
+                return NO_GROUP;
+            }
+            // Get all groups for this match
+            String[] groups = new String[matcher.groupCount() + 1];
+            for (int i = 0; i < groups.length; i++) {
+                groups[i] = matcher.group(i);
+                log.log(Level.FINE, "groupStr: {0}", groups[i]);
+            }
+            return groups;
+        }
+    }
+
+    /**
+     * One compiled dynamic permission configuration.
+     */
+    private static final class Rule {
+
+        /**
+         * Parsed group format, never used directly as {@link MessageFormat} is not thread safe
+         */
+        private final MessageFormat format;
+
+        /**
+         * Resolved permissions
+         */
+        private final Permission[] permissions;
+
+        Rule(MessageFormat format, Permission[] permissions) {
+            this.format = format;
+            this.permissions = permissions;
+        }
+
+        String formatGroup(String[] groups) {
+            return ((MessageFormat) format.clone()).format(groups);
+        }
+    }
+}
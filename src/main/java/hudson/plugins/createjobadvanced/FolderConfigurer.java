@@ -2,6 +2,7 @@ package hudson.plugins.createjobadvanced;
 
 import com.cloudbees.hudson.plugins.folder.AbstractFolder;
 import com.cloudbees.hudson.plugins.folder.properties.AuthorizationMatrixProperty;
+import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import hudson.model.Item;
 import hudson.security.Permission;
@@ -10,7 +11,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import jenkins.model.Jenkins;
 import org.jenkinsci.plugins.matrixauth.PermissionEntry;
 import org.jenkinsci.plugins.matrixauth.inheritance.InheritanceStrategy;
 
@@ -33,6 +33,21 @@ public final class FolderConfigurer extends AbstractConfigurer<AbstractFolder<?>
         }
     }
 
+    @Override
+    protected boolean doReapply(@Nullable Item item) {
+        return isApplicable(item) && super.doReapply(item);
+    }
+
+    @Override
+    protected boolean isApplicable(@Nullable Item item) {
+        return item instanceof AbstractFolder<?>;
+    }
+
+    @Override
+    protected boolean isApplicable(@NonNull Class<?> itemType) {
+        return AbstractFolder.class.isAssignableFrom(itemType);
+    }
+
     @Override
     protected void renameJob(@Nullable Item item, @Nullable String newName) throws IOException {
         if (null != item && null != newName && item instanceof AbstractFolder<?>) {
@@ -73,9 +88,8 @@ public final class FolderConfigurer extends AbstractConfigurer<AbstractFolder<?>
 
     @Nullable
     private final AuthorizationMatrixProperty.DescriptorImpl getAuthorizationPropertyDescriptor() {
-        AuthorizationMatrixProperty.DescriptorImpl result = (AuthorizationMatrixProperty.DescriptorImpl)
-                (Jenkins.get().getDescriptor(AuthorizationMatrixProperty.class));
-        return result;
+        return getContext()
+                .getDescriptor(AuthorizationMatrixProperty.class, AuthorizationMatrixProperty.DescriptorImpl.class);
     }
 
     @Override
@@ -118,12 +132,27 @@ public final class FolderConfigurer extends AbstractConfigurer<AbstractFolder<?>
         }
     }
 
+    @Override
+    protected @Nullable InheritanceStrategy getInheritanceStrategy(@NonNull AuthorizationMatrixProperty authProperty) {
+        return authProperty.getInheritanceStrategy();
+    }
+
+    @Override
+    protected boolean hasExplicitPermission(
+            @NonNull AuthorizationMatrixProperty authProperty,
+            @NonNull Permission perm,
+            @NonNull PermissionEntry permEntry) {
+        return authProperty.hasExplicitPermission(permEntry, perm);
+    }
+
     @Override
     protected boolean showPermission(@Nullable Permission perm) {
-        AuthorizationMatrixProperty.DescriptorImpl propDescriptor = getAuthorizationPropertyDescriptor();
         boolean result = false;
-        if (null != propDescriptor && null != perm) {
-            result = propDescriptor.showPermission(perm);
+        if (null != perm) {
+            result = getContext().showPermission(AuthorizationMatrixProperty.class, perm, p -> {
+                AuthorizationMatrixProperty.DescriptorImpl propDescriptor = getAuthorizationPropertyDescriptor();
+                return null != propDescriptor && propDescriptor.showPermission(p);
+            });
         }
         return result;
     }
@@ -0,0 +1,246 @@
+package hudson.plugins.createjobadvanced;
+
+import com.cloudbees.hudson.plugins.folder.AbstractFolder;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import hudson.Extension;
+import hudson.XmlFile;
+import hudson.init.InitMilestone;
+import hudson.init.Initializer;
+import hudson.model.Item;
+import hudson.model.Saveable;
+import hudson.model.listeners.ItemListener;
+import hudson.model.listeners.SaveableListener;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.UnaryOperator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.model.Jenkins;
+
+/**
+ * Index of the {@link FolderPolicyProperty} of all folders, keyed by folder full name.
+ * <P>
+ * The index is built once when jobs are loaded, then maintained incrementally when folders are saved, moved or
+ * deleted. Effective configurations are resolved from the parent full name of created items, without walking the
+ * folder hierarchy, and memoized by folder until a policy or the global configuration changes.
+ */
+public final class FolderPolicyIndex {
+
+    private static final Logger log = Logger.getLogger(CreateJobAdvancedPlugin.class.getName());
+
+    private static final FolderPolicyIndex INSTANCE = new FolderPolicyIndex();
+
+    /**
+     * Folder policies, by folder full name
+     */
+    private final ConcurrentMap<String, FolderPolicyProperty> policies = new ConcurrentHashMap<>();
+
+    /**
+     * Memoized effective configurations, dropped on any change
+     */
+    private volatile Resolved resolved;
+
+    private FolderPolicyIndex() {}
+
+    /**
+     * @return folder policy index
+     */
+    public static @NonNull FolderPolicyIndex get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Resolve the configuration applied to given item.
+     *
+     * @param item created or updated item
+     * @param global global plugin configuration
+     * @return global configuration with the policies of the enclosing folders applied
+     */
+    public @NonNull PluginConfiguration resolve(@NonNull Item item, @NonNull PluginConfiguration global) {
+        if (policies.isEmpty()) {
+            return global;
+        }
+        final String path = item.getParent().getFullName();
+        if (path.isEmpty()) {
+            return global;
+        }
+        Resolved current = resolved;
+        if (null == current || current.global != global) {
+            current = new Resolved(global);
+            resolved = current;
+        }
+        return current.configurations.computeIfAbsent(path, p -> compute(p, global));
+    }
+
+    /**
+     * Resolve the configuration applied to the items of given parent, before a folder has been renamed or moved. The
+     * index must already follow the moved folder.
+     *
+     * @param oldPath former parent full name of an item
+     * @param global global plugin configuration
+     * @param oldFullName former full name of the moved folder
+     * @param newFullName new full name of the moved folder
+     * @return configuration applied before the move
+     */
+    @NonNull
+    PluginConfiguration resolveFormer(
+            @NonNull String oldPath,
+            @NonNull PluginConfiguration global,
+            @NonNull String oldFullName,
+            @NonNull String newFullName) {
+        if (policies.isEmpty() || oldPath.isEmpty()) {
+            return global;
+        }
+        final String prefix = oldFullName + "/";
+        return compute(
+                oldPath,
+                global,
+                key -> key.equals(oldFullName) || key.startsWith(prefix)
+                        ? newFullName + key.substring(oldFullName.length())
+                        : key);
+    }
+
+    private PluginConfiguration compute(String path, PluginConfiguration global) {
+        return compute(path, global, UnaryOperator.identity());
+    }
+
+    private PluginConfiguration compute(String path, PluginConfiguration global, UnaryOperator<String> keys) {
+        PluginConfiguration result = global;
+        int end = -1;
+        do {
+            end = path.indexOf('/', end + 1);
+            final FolderPolicyProperty policy = policies.get(keys.apply(end < 0 ? path : path.substring(0, end)));
+            if (null != policy) {
+                result = policy.applyTo(result);
+            }
+        } while (end >= 0);
+        return result;
+    }
+
+    /**
+     * @param fullName folder full name
+     * @return policy of given folder, null if none
+     */
+    public @Nullable FolderPolicyProperty getPolicy(@NonNull String fullName) {
+        return policies.get(fullName);
+    }
+
+    /**
+     * @return number of folders with a policy
+     */
+    public int size() {
+        return policies.size();
+    }
+
+    void update(@NonNull String fullName, @Nullable FolderPolicyProperty policy) {
+        final FolderPolicyProperty previous =
+                null == policy ? policies.remove(fullName) : policies.put(fullName, policy);
+        if (previous != policy) {
+            resolved = null;
+        }
+    }
+
+    void remove(@NonNull String fullName) {
+        final String prefix = fullName + "/";
+        boolean changed = null != policies.remove(fullName);
+        changed |= policies.keySet().removeIf(key -> key.startsWith(prefix));
+        if (changed) {
+            resolved = null;
+        }
+    }
+
+    void move(@NonNull String oldFullName, @NonNull String newFullName) {
+        final String prefix = oldFullName + "/";
+        final List<String> moved = new ArrayList<>();
+        for (String key : policies.keySet()) {
+            if (key.equals(oldFullName) || key.startsWith(prefix)) {
+                moved.add(key);
+            }
+        }
+        for (String key : moved) {
+            final FolderPolicyProperty policy = policies.remove(key);
+            if (null != policy) {
+                policies.put(newFullName + key.substring(oldFullName.length()), policy);
+            }
+        }
+        if (!moved.isEmpty()) {
+            resolved = null;
+        }
+    }
+
+    @Initializer(after = InitMilestone.JOB_LOADED)
+    public static void load() {
+        final Jenkins jenkins = Jenkins.get();
+        if (null == jenkins.getPlugin("cloudbees-folder")) {
+            return;
+        }
+        INSTANCE.policies.clear();
+        try (ACLContext ignored = ACL.as2(ACL.SYSTEM2)) {
+            for (AbstractFolder<?> folder : jenkins.getAllItems(AbstractFolder.class)) {
+                final FolderPolicyProperty policy = folder.getProperties().get(FolderPolicyProperty.class);
+                if (null != policy) {
+                    INSTANCE.policies.put(folder.getFullName(), policy);
+                }
+            }
+        }
+        INSTANCE.resolved = null;
+        log.log(Level.FINE, "{0} folder policies loaded", INSTANCE.policies.size());
+    }
+
+    /**
+     * Memoized effective configurations for one global configuration snapshot.
+     */
+    private static final class Resolved {
+
+        private final PluginConfiguration global;
+        private final Map<String, PluginConfiguration> configurations = new ConcurrentHashMap<>();
+
+        Resolved(PluginConfiguration global) {
+            this.global = global;
+        }
+    }
+
+    /**
+     * Keeps the index in sync with folder configuration changes.
+     */
+    @Extension(optional = true)
+    public static final class FolderSaveListener extends SaveableListener {
+
+        @Override
+        public void onChange(Saveable o, XmlFile file) {
+            if (o instanceof AbstractFolder<?>) {
+                final AbstractFolder<?> folder = (AbstractFolder<?>) o;
+                INSTANCE.update(folder.getFullName(), folder.getProperties().get(FolderPolicyProperty.class));
+            }
+        }
+    }
+
+    /**
+     * Keeps the index in sync with moved and deleted folders. Notified before {@link ItemListenerImpl}, so that moved
+     * items are configured with the policies of their new location.
+     */
+    @Extension(optional = true, ordinal = 100)
+    public static final class FolderItemListener extends ItemListener {
+
+        @Override
+        public void onDeleted(Item item) {
+            if (item instanceof AbstractFolder<?>) {
+                INSTANCE.remove(item.getFullName());
+            }
+        }
+
+        @Override
+        public void onLocationChanged(Item item, String oldFullName, String newFullName) {
+            if (item instanceof AbstractFolder<?>) {
+                // the folder may have been renamed again, e.g. normalized, before this notification
+                INSTANCE.move(oldFullName, item.getFullName());
+            }
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package hudson.plugins.createjobadvanced;
+
+import com.cloudbees.hudson.plugins.folder.AbstractFolder;
+import com.cloudbees.hudson.plugins.folder.AbstractFolderProperty;
+import com.cloudbees.hudson.plugins.folder.AbstractFolderPropertyDescriptor;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import hudson.Extension;
+import hudson.security.Permission;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+import org.kohsuke.stapler.StaplerRequest2;
+
+/**
+ * Folder level override of the plugin configuration, applied to the items created in the folder subtree.
+ * <P>
+ * Owner, public browse and log rotator settings either inherit the enclosing policy or replace it. Dynamic permission
+ * definitions extend the enclosing ones, unless inheritance is disabled. Effective policies are resolved by
+ * {@link FolderPolicyIndex}.
+ */
+public class FolderPolicyProperty extends AbstractFolderProperty<AbstractFolder<?>> {
+
+    /**
+     * Override mode of a plugin option.
+     */
+    public enum Mode {
+        /** keep the enclosing setting */
+        INHERIT,
+        /** activate the option in this subtree */
+        ENABLED,
+        /** deactivate the option in this subtree */
+        DISABLED;
+
+        boolean apply(boolean inherited) {
+            return this == INHERIT ? inherited : this == ENABLED;
+        }
+    }
+
+    private Mode ownerRights = Mode.INHERIT;
+    private Mode publicBrowse = Mode.INHERIT;
+
+    private Mode logRotator = Mode.INHERIT;
+    private int daysToKeep = -1;
+    private int numToKeep = -1;
+    private int artifactDaysToKeep = -1;
+    private int artifactNumToKeep = -1;
+
+    private boolean inheritDynamicPermissions = true;
+    private String extractPattern;
+    private List<DynamicPermissionConfig> dynamicPermissionConfigs = new ArrayList<>();
+
+    @DataBoundConstructor
+    public FolderPolicyProperty() {}
+
+    /**
+     * Build the effective configuration of the items created in the folder.
+     *
+     * @param parent effective configuration of the enclosing folder
+     * @return configuration with this policy applied
+     */
+    @NonNull
+    PluginConfiguration applyTo(@NonNull PluginConfiguration parent) {
+        final boolean overrideLogRotator = logRotator != Mode.INHERIT;
+        final List<DynamicPermissionConfig> configs = new ArrayList<>();
+        if (inheritDynamicPermissions && parent.isActiveDynamicPermissions()) {
+            configs.addAll(parent.getDynamicPermissionConfigs());
+        }
+        configs.addAll(dynamicPermissionConfigs);
+        return new PluginConfiguration(
+                ownerRights.apply(parent.isAutoOwnerRights()),
+                publicBrowse.apply(parent.isAutoPublicBrowse()),
+                parent.isReplaceSpace(),
+                parent.isNormalizeNameOnRequest(),
+                logRotator.apply(parent.isActiveLogRotator()),
+                overrideLogRotator ? daysToKeep : parent.getDaysToKeep(),
+                overrideLogRotator ? numToKeep : parent.getNumToKeep(),
+                overrideLogRotator ? artifactDaysToKeep : parent.getArtifactDaysToKeep(),
+                overrideLogRotator ? artifactNumToKeep : parent.getArtifactNumToKeep(),
+                !configs.isEmpty(),
+                null == extractPattern ? parent.getExtractPattern() : extractPattern,
+                parent.isMvnArchivingDisabled(),
+                parent.isMvnPerModuleEmail(),
+                parent.isAsyncConfiguration(),
+                parent.isBatchSessions(),
+                parent.isRecomputeOnMove(),
+                configs);
+    }
+
+    public Mode getOwnerRights() {
+        return ownerRights;
+    }
+
+    @DataBoundSetter
+    public void setOwnerRights(@Nullable Mode ownerRights) {
+        this.ownerRights = null == ownerRights ? Mode.INHERIT : ownerRights;
+    }
+
+    public Mode getPublicBrowse() {
+        return publicBrowse;
+    }
+
+    @DataBoundSetter
+    public void setPublicBrowse(@Nullable Mode publicBrowse) {
+        this.publicBrowse = null == publicBrowse ? Mode.INHERIT : publicBrowse;
+    }
+
+    public Mode getLogRotator() {
+        return logRotator;
+    }
+
+    @DataBoundSetter
+    public void setLogRotator(@Nullable Mode logRotator) {
+        this.logRotator = null == logRotator ? Mode.INHERIT : logRotator;
+    }
+
+    public int getDaysToKeep() {
+        return daysToKeep;
+    }
+
+    @DataBoundSetter
+    public void setDaysToKeep(int daysToKeep) {
+        this.daysToKeep = daysToKeep;
+    }
+
+    public int getNumToKeep() {
+        return numToKeep;
+    }
+
+    @DataBoundSetter
+    public void setNumToKeep(int numToKeep) {
+        this.numToKeep = numToKeep;
+    }
+
+    public int getArtifactDaysToKeep() {
+        return artifactDaysToKeep;
+    }
+
+    @DataBoundSetter
+    public void setArtifactDaysToKeep(int artifactDaysToKeep) {
+        this.artifactDaysToKeep = artifactDaysToKeep;
+    }
+
+    public int getArtifactNumToKeep() {
+        return artifactNumToKeep;
+    }
+
+    @DataBoundSetter
+    public void setArtifactNumToKeep(int artifactNumToKeep) {
+        this.artifactNumToKeep = artifactNumToKeep;
+    }
+
+    /**
+     * @return true when the dynamic permission definitions of the enclosing policy also apply
+     */
+    public boolean isInheritDynamicPermissions() {
+        return inheritDynamicPermissions;
+    }
+
+    @DataBoundSetter
+    public void setInheritDynamicPermissions(boolean inheritDynamicPermissions) {
+        this.inheritDynamicPermissions = inheritDynamicPermissions;
+    }
+
+    /**
+     * @return pattern replacing the enclosing global extract pattern, null to keep it
+     */
+    public String getExtractPattern() {
+        return extractPattern;
+    }
+
+    @DataBoundSetter
+    public void setExtractPattern(@Nullable String extractPattern) {
+        this.extractPattern = null == extractPattern || extractPattern.isEmpty() ? null : extractPattern;
+    }
+
+    /**
+     * @return dynamic permission definitions added by this folder
+     */
+    public List<DynamicPermissionConfig> getDynamicPermissionConfigs() {
+        return Collections.unmodifiableList(dynamicPermissionConfigs);
+    }
+
+    void setDynamicPermissionConfigs(@NonNull List<DynamicPermissionConfig> dynamicPermissionConfigs) {
+        this.dynamicPermissionConfigs = new ArrayList<>(dynamicPermissionConfigs);
+    }
+
+    protected Object readResolve() {
+        setOwnerRights(ownerRights);
+        setPublicBrowse(publicBrowse);
+        setLogRotator(logRotator);
+        if (null == dynamicPermissionConfigs) {
+            dynamicPermissionConfigs = new ArrayList<>();
+        }
+        return this;
+    }
+
+    @Extension(optional = true)
+    public static class DescriptorImpl extends AbstractFolderPropertyDescriptor {
+
+        @NonNull
+        @Override
+        public String getDisplayName() {
+            return "Create Job Advanced policy";
+        }
+
+        @Override
+        public AbstractFolderProperty<?> newInstance(StaplerRequest2 req, @NonNull JSONObject formData) {
+            final JSONObject policy = formData.optJSONObject("createJobAdvancedPolicy");
+            if (null == req || null == policy) {
+                return null;
+            }
+            final FolderPolicyProperty result = req.bindJSON(FolderPolicyProperty.class, policy);
+            final List<DynamicPermissionConfig> configs = new ArrayList<>();
+            final Object cfgs = policy.opt("cfgs");
+            if (cfgs instanceof JSONArray) {
+                for (Object object : (JSONArray) cfgs) {
+                    configs.add(CreateJobAdvancedPlugin.createDynamicPermission(req, (JSONObject) object));
+                }
+            } else if (cfgs instanceof JSONObject) {
+                configs.add(CreateJobAdvancedPlugin.createDynamicPermission(req, (JSONObject) cfgs));
+            }
+            result.setDynamicPermissionConfigs(configs);
+            return result;
+        }
+
+        /**
+         * @return available override modes
+         */
+        public Mode[] getModes() {
+            return Mode.values();
+        }
+
+        /**
+         * @return permissions which can be granted by dynamic permission definitions
+         */
+        public Map<String, List<Permission>> getAllPossiblePermissions() {
+            return CreateJobAdvancedPlugin.getAllPossiblePermissions();
+        }
+
+        /**
+         * @param p permission
+         * @return space separated IDs of the permissions implying given permission
+         */
+        public String impliedByList(@Nullable Permission p) {
+            return CreateJobAdvancedPlugin.impliedByList(p);
+        }
+    }
+}
@@ -0,0 +1,592 @@
+package hudson.plugins.createjobadvanced;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import hudson.Extension;
+import hudson.init.InitMilestone;
+import hudson.init.Initializer;
+import hudson.init.Terminator;
+import hudson.model.Item;
+import hudson.model.listeners.ItemListener;
+import hudson.security.Permission;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.model.Jenkins;
+import jenkins.util.Timer;
+import org.jenkinsci.plugins.matrixauth.AuthorizationType;
+import org.jenkinsci.plugins.matrixauth.PermissionEntry;
+
+/**
+ * Authorization matrix entries granted by the plugin, by item full name.
+ * <P>
+ * Only the entries actually added by the plugin are recorded, entries already granted by hand are not. Recorded
+ * entries can therefore be revoked safely when the item no longer qualifies for them, e.g. after a rename, and a
+ * policy change can be applied as an exact diff of the recorded entries.
+ * <P>
+ * Each distinct (permission, entry) pair is stored once, items only keep the sorted indexes of their pairs together
+ * with the fingerprint of the policy that granted each of them, as an index in a small table of the distinct
+ * fingerprints of the item. Records are persisted in a compact binary index under
+ * {@code $JENKINS_HOME/createjobadvanced}, written in the background a few seconds after a change.
+ */
+public final class GrantProvenance {
+
+    private static final Logger log = Logger.getLogger(CreateJobAdvancedPlugin.class.getName());
+
+    /**
+     * Index format version
+     */
+    private static final int VERSION = 2;
+
+    /**
+     * Index format version with a single policy fingerprint per item
+     */
+    private static final int VERSION_SINGLE_RULE = 1;
+
+    /**
+     * Delay before changes are written, in seconds
+     */
+    private static final long SAVE_DELAY = 5;
+
+    private static final GrantProvenance INSTANCE = new GrantProvenance();
+
+    /**
+     * Distinct granted permission and entry pairs, referenced by index
+     */
+    private final List<String> pairs = new ArrayList<>();
+
+    /**
+     * Indexes of the distinct pairs
+     */
+    private final Map<String, Integer> pairIndexes = new HashMap<>();
+
+    /**
+     * Grants, by item full name
+     */
+    private final ConcurrentMap<String, Grants> grants = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    private GrantProvenance() {}
+
+    /**
+     * @return grant provenance instance
+     */
+    public static @NonNull GrantProvenance get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Record that given permission has been granted by the plugin to given entry on given item.
+     *
+     * @param fullName item full name
+     * @param perm granted permission
+     * @param entry permission entry
+     * @param ruleVersion fingerprint of the policy granting the permission
+     */
+    void record(
+            @NonNull String fullName, @NonNull Permission perm, @NonNull PermissionEntry entry, long ruleVersion) {
+        final int pair = indexOf(key(perm, entry), true);
+        final Grants previous = grants.get(fullName);
+        if (null != previous && previous.ruleVersion == ruleVersion && previous.isGrantedBy(pair, ruleVersion)) {
+            return;
+        }
+        grants.compute(fullName, (n, granted) -> null == granted
+                ? new Grants(ruleVersion, new int[] {pair}, new long[] {ruleVersion}, new int[] {0})
+                : granted.with(pair, ruleVersion));
+        changed();
+    }
+
+    /**
+     * @param fullName item full name
+     * @param perm permission
+     * @param entry permission entry
+     * @return true if given permission has been granted by the plugin to given entry on given item
+     */
+    public boolean isGranted(@NonNull String fullName, @NonNull Permission perm, @NonNull PermissionEntry entry) {
+        final Grants granted = grants.get(fullName);
+        return null != granted && granted.contains(indexOf(key(perm, entry), false));
+    }
+
+    /**
+     * @param fullName item full name
+     * @return permissions granted by the plugin to given item, by permission
+     */
+    public @NonNull Map<Permission, Set<PermissionEntry>> getGrants(@NonNull String fullName) {
+        final Map<Permission, Set<PermissionEntry>> result = new HashMap<>();
+        final Grants granted = grants.get(fullName);
+        if (null == granted) {
+            return result;
+        }
+        for (int pair : granted.pairs) {
+            final String key;
+            synchronized (pairs) {
+                key = pairs.get(pair);
+            }
+            final int space = key.indexOf(' ');
+            final int colon = key.indexOf(':', space);
+            final Permission perm = Permission.fromId(key.substring(0, space));
+            if (null != perm) {
+                final PermissionEntry entry = PermissionEntries.intern(new PermissionEntry(
+                        AuthorizationType.valueOf(key.substring(space + 1, colon)), key.substring(colon + 1)));
+                result.computeIfAbsent(perm, p -> new LinkedHashSet<>()).add(entry);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param fullName item full name
+     * @return fingerprint of the policy that last granted permissions to given item, null if none was granted
+     */
+    public @Nullable Long getRuleVersion(@NonNull String fullName) {
+        final Grants granted = grants.get(fullName);
+        return null == granted ? null : granted.ruleVersion;
+    }
+
+    /**
+     * @param fullName item full name
+     * @param perm permission
+     * @param entry permission entry
+     * @return fingerprint of the policy that granted given permission to given entry on given item, null if it was not
+     *     granted by the plugin
+     */
+    public @Nullable Long getRuleVersion(
+            @NonNull String fullName, @NonNull Permission perm, @NonNull PermissionEntry entry) {
+        final Grants granted = grants.get(fullName);
+        return null == granted ? null : granted.versionOf(indexOf(key(perm, entry), false));
+    }
+
+    /**
+     * Forget a grant revoked from given item.
+     *
+     * @param fullName item full name
+     * @param perm revoked permission
+     * @param entry permission entry
+     */
+    void revoke(@NonNull String fullName, @NonNull Permission perm, @NonNull PermissionEntry entry) {
+        final int pair = indexOf(key(perm, entry), false);
+        final Grants previous = grants.get(fullName);
+        if (null != previous && previous.contains(pair)) {
+            grants.computeIfPresent(fullName, (n, granted) -> {
+                final Grants result = granted.without(pair);
+                return result.pairs.length == 0 ? null : result;
+            });
+            changed();
+        }
+    }
+
+    /**
+     * Follow a renamed or moved item, and the items it contains. Grants already recorded under the new name, e.g. by
+     * the notification of a nested rename, are kept.
+     *
+     * @param oldFullName former item full name
+     * @param newFullName new item full name
+     */
+    void move(@NonNull String oldFullName, @NonNull String newFullName) {
+        final String prefix = oldFullName + "/";
+        final List<String> moved = new ArrayList<>();
+        for (String key : grants.keySet()) {
+            if (key.equals(oldFullName) || key.startsWith(prefix)) {
+                moved.add(key);
+            }
+        }
+        for (String key : moved) {
+            final Grants granted = grants.remove(key);
+            if (null != granted) {
+                grants.merge(newFullName + key.substring(oldFullName.length()), granted, Grants::merge);
+            }
+        }
+        if (!moved.isEmpty()) {
+            changed();
+        }
+    }
+
+    /**
+     * Forget a deleted item, and the items it contains.
+     *
+     * @param fullName item full name
+     */
+    void remove(@NonNull String fullName) {
+        final String prefix = fullName + "/";
+        boolean removed = null != grants.remove(fullName);
+        removed |= grants.keySet().removeIf(key -> key.startsWith(prefix));
+        if (removed) {
+            changed();
+        }
+    }
+
+    /**
+     * @return number of items with recorded grants
+     */
+    int size() {
+        return grants.size();
+    }
+
+    private int indexOf(String key, boolean add) {
+        synchronized (pairs) {
+            Integer index = pairIndexes.get(key);
+            if (null == index) {
+                if (!add) {
+                    return -1;
+                }
+                index = pairs.size();
+                pairs.add(key);
+                pairIndexes.put(key, index);
+            }
+            return index;
+        }
+    }
+
+    private static String key(Permission perm, PermissionEntry entry) {
+        return perm.getId() + ' ' + entry.getType() + ':' + entry.getSid();
+    }
+
+    private void changed() {
+        if (dirty.compareAndSet(false, true)) {
+            Timer.get().schedule(this::saveQuietly, SAVE_DELAY, TimeUnit.SECONDS);
+        }
+    }
+
+    private void saveQuietly() {
+        try {
+            save();
+        } catch (IOException | RuntimeException e) {
+            log.log(Level.WARNING, "unable to save granted permissions provenance", e);
+        }
+    }
+
+    @Initializer(after = InitMilestone.PLUGINS_STARTED)
+    public static void loadOnStartup() {
+        INSTANCE.load();
+    }
+
+    @Terminator
+    public static void saveOnShutdown() throws IOException {
+        if (INSTANCE.dirty.get()) {
+            INSTANCE.save();
+        }
+    }
+
+    /**
+     * Write recorded grants to the index.
+     *
+     * @throws IOException if the index cannot be written
+     */
+    synchronized void save() throws IOException {
+        final File file = getFile();
+        if (null == file) {
+            return;
+        }
+        dirty.set(false);
+        final Map<String, Grants> snapshot = new TreeMap<>(grants);
+        final List<String> keys;
+        synchronized (pairs) {
+            keys = new ArrayList<>(pairs);
+        }
+        final Path path = file.toPath();
+        Files.createDirectories(path.getParent());
+        final Path tmp = Files.createTempFile(path.getParent(), "provenance", ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(VERSION);
+                writeVarInt(out, keys.size());
+                for (String key : keys) {
+                    out.writeUTF(key);
+                }
+                writeVarInt(out, snapshot.size());
+                for (Map.Entry<String, Grants> entry : snapshot.entrySet()) {
+                    final Grants granted = entry.getValue();
+                    out.writeUTF(entry.getKey());
+                    out.writeLong(granted.ruleVersion);
+                    writeVarInt(out, granted.versions.length);
+                    for (long version : granted.versions) {
+                        out.writeLong(version);
+                    }
+                    writeVarInt(out, granted.pairs.length);
+                    // pairs are sorted, deltas are small
+                    int previous = 0;
+                    for (int i = 0; i < granted.pairs.length; i++) {
+                        writeVarInt(out, granted.pairs[i] - previous);
+                        writeVarInt(out, granted.pairVersions[i]);
+                        previous = granted.pairs[i];
+                    }
+                }
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Replace recorded grants by the ones of the index.
+     */
+    synchronized void load() {
+        final File file = getFile();
+        if (null == file) {
+            return;
+        }
+        final Path path = file.toPath();
+        final List<String> keys = new ArrayList<>();
+        final Map<String, Grants> loaded = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            final int version = in.readInt();
+            if (version != VERSION && version != VERSION_SINGLE_RULE) {
+                log.log(Level.WARNING, "ignoring granted permissions provenance of unknown version {0}", path);
+                return;
+            }
+            final int keyCount = readVarInt(in);
+            for (int i = 0; i < keyCount; i++) {
+                keys.add(in.readUTF());
+            }
+            final int itemCount = readVarInt(in);
+            for (int i = 0; i < itemCount; i++) {
+                final String fullName = in.readUTF();
+                final long ruleVersion = in.readLong();
+                final long[] versions;
+                if (version == VERSION_SINGLE_RULE) {
+                    versions = new long[] {ruleVersion};
+                } else {
+                    versions = new long[readVarInt(in)];
+                    for (int j = 0; j < versions.length; j++) {
+                        versions[j] = in.readLong();
+                    }
+                }
+                final int[] granted = new int[readVarInt(in)];
+                final int[] grantedVersions = new int[granted.length];
+                int previous = 0;
+                for (int j = 0; j < granted.length; j++) {
+                    previous += readVarInt(in);
+                    granted[j] = previous;
+                    grantedVersions[j] = version == VERSION_SINGLE_RULE ? 0 : readVarInt(in);
+                    if (grantedVersions[j] >= versions.length) {
+                        throw new IOException("malformed policy fingerprint index of " + fullName);
+                    }
+                }
+                loaded.put(fullName, new Grants(ruleVersion, granted, versions, grantedVersions));
+            }
+        } catch (NoSuchFileException e) {
+            return;
+        } catch (IOException e) {
+            log.log(Level.WARNING, "ignoring unreadable granted permissions provenance " + path, e);
+            return;
+        }
+        synchronized (pairs) {
+            pairs.clear();
+            pairIndexes.clear();
+            for (String key : keys) {
+                pairIndexes.put(key, pairs.size());
+                pairs.add(key);
+            }
+        }
+        grants.clear();
+        grants.putAll(loaded);
+        log.log(Level.FINE, "loaded granted permissions provenance of {0} items", loaded.size());
+    }
+
+    private static @Nullable File getFile() {
+        final Jenkins jenkins = Jenkins.getInstanceOrNull();
+        return null == jenkins ? null : new File(new File(jenkins.getRootDir(), "createjobadvanced"), "provenance.idx");
+    }
+
+    private static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInput in) throws IOException {
+        int result = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            final byte b = in.readByte();
+            result |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("malformed variable length integer");
+    }
+
+    /**
+     * Grants of one item, immutable.
+     */
+    private static final class Grants {
+
+        /**
+         * Fingerprint of the policy of the last recorded grant
+         */
+        private final long ruleVersion;
+
+        /**
+         * Sorted pair indexes
+         */
+        private final int[] pairs;
+
+        /**
+         * Distinct fingerprints of the policies granting the pairs, usually one or two
+         */
+        private final long[] versions;
+
+        /**
+         * Index in {@link #versions} of the fingerprint of each pair
+         */
+        private final int[] pairVersions;
+
+        Grants(long ruleVersion, int[] pairs, long[] versions, int[] pairVersions) {
+            this.ruleVersion = ruleVersion;
+            this.pairs = pairs;
+            this.versions = versions;
+            this.pairVersions = pairVersions;
+        }
+
+        boolean contains(int pair) {
+            return pair >= 0 && Arrays.binarySearch(pairs, pair) >= 0;
+        }
+
+        @Nullable
+        Long versionOf(int pair) {
+            final int pos = pair < 0 ? -1 : Arrays.binarySearch(pairs, pair);
+            return pos < 0 ? null : versions[pairVersions[pos]];
+        }
+
+        boolean isGrantedBy(int pair, long version) {
+            final Long granted = versionOf(pair);
+            return null != granted && granted == version;
+        }
+
+        Grants with(int pair, long version) {
+            int index = 0;
+            while (index < versions.length && versions[index] != version) {
+                index++;
+            }
+            long[] newVersions = versions;
+            if (index == versions.length) {
+                newVersions = Arrays.copyOf(versions, index + 1);
+                newVersions[index] = version;
+            }
+            final int pos = Arrays.binarySearch(pairs, pair);
+            if (pos >= 0) {
+                final int[] newPairVersions = pairVersions.clone();
+                newPairVersions[pos] = index;
+                return compact(version, pairs, newVersions, newPairVersions);
+            }
+            final int insert = -pos - 1;
+            final int[] newPairs = new int[pairs.length + 1];
+            final int[] newPairVersions = new int[pairs.length + 1];
+            System.arraycopy(pairs, 0, newPairs, 0, insert);
+            System.arraycopy(pairVersions, 0, newPairVersions, 0, insert);
+            newPairs[insert] = pair;
+            newPairVersions[insert] = index;
+            System.arraycopy(pairs, insert, newPairs, insert + 1, pairs.length - insert);
+            System.arraycopy(pairVersions, insert, newPairVersions, insert + 1, pairs.length - insert);
+            return compact(version, newPairs, newVersions, newPairVersions);
+        }
+
+        /**
+         * @param former grants recorded earlier for the same item
+         * @return these grants, plus the former ones not recorded again since
+         */
+        Grants merge(Grants former) {
+            Grants result = this;
+            for (int i = 0; i < former.pairs.length; i++) {
+                if (!contains(former.pairs[i])) {
+                    result = result.with(former.pairs[i], former.versions[former.pairVersions[i]]);
+                }
+            }
+            return result == this ? this : new Grants(ruleVersion, result.pairs, result.versions, result.pairVersions);
+        }
+
+        Grants without(int pair) {
+            final int pos = Arrays.binarySearch(pairs, pair);
+            if (pos < 0) {
+                return this;
+            }
+            final int[] newPairs = new int[pairs.length - 1];
+            final int[] newPairVersions = new int[pairs.length - 1];
+            System.arraycopy(pairs, 0, newPairs, 0, pos);
+            System.arraycopy(pairVersions, 0, newPairVersions, 0, pos);
+            System.arraycopy(pairs, pos + 1, newPairs, pos, pairs.length - pos - 1);
+            System.arraycopy(pairVersions, pos + 1, newPairVersions, pos, pairs.length - pos - 1);
+            return compact(ruleVersion, newPairs, versions, newPairVersions);
+        }
+
+        /**
+         * @return grants without the fingerprints no pair refers to anymore
+         */
+        private static Grants compact(long ruleVersion, int[] pairs, long[] versions, int[] pairVersions) {
+            final int[] remap = new int[versions.length];
+            Arrays.fill(remap, -1);
+            int used = 0;
+            for (int index : pairVersions) {
+                if (remap[index] < 0) {
+                    remap[index] = used++;
+                }
+            }
+            if (used == versions.length) {
+                boolean ordered = true;
+                for (int i = 0; i < remap.length && ordered; i++) {
+                    ordered = remap[i] == i;
+                }
+                if (ordered) {
+                    return new Grants(ruleVersion, pairs, versions, pairVersions);
+                }
+            }
+            final long[] newVersions = new long[used];
+            for (int i = 0; i < versions.length; i++) {
+                if (remap[i] >= 0) {
+                    newVersions[remap[i]] = versions[i];
+                }
+            }
+            final int[] newPairVersions = new int[pairVersions.length];
+            for (int i = 0; i < pairVersions.length; i++) {
+                newPairVersions[i] = remap[pairVersions[i]];
+            }
+            return new Grants(ruleVersion, pairs, newVersions, newPairVersions);
+        }
+    }
+
+    /**
+     * Keeps the recorded grants in sync with moved and deleted items. Notified before {@link ItemListenerImpl}, so
+     * that the grants of moved items are found under their new name.
+     */
+    @Extension(ordinal = 100)
+    public static final class ProvenanceItemListener extends ItemListener {
+
+        @Override
+        public void onDeleted(Item item) {
+            INSTANCE.remove(item.getFullName());
+        }
+
+        @Override
+        public void onLocationChanged(Item item, String oldFullName, String newFullName) {
+            // the item may have been renamed again, e.g. normalized, before this notification
+            INSTANCE.move(oldFullName, item.getFullName());
+        }
+    }
+}
@@ -1,10 +1,18 @@
 package hudson.plugins.createjobadvanced;
 
+import edu.umd.cs.findbugs.annotations.NonNull;
 import hudson.Extension;
+import hudson.ExtensionList;
+import hudson.ExtensionListListener;
 import hudson.model.Item;
 import hudson.model.listeners.ItemListener;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import jenkins.model.Jenkins;
@@ -13,6 +21,10 @@ import org.kohsuke.stapler.StaplerResponse2;
 
 /**
  * Item listener in charge to apply plugin configuration on created or renamed items.
+ * <P>
+ * Built-in configurers are selected according to available plugins, other plugins can contribute configurers for
+ * their own item types as {@link AbstractConfigurer} extensions. Configurers applicable to each item class are
+ * resolved once, using {@link AbstractConfigurer#isApplicable(Class)}, and cached until configurer extensions change.
  */
 @Extension
 public class ItemListenerImpl extends ItemListener {
@@ -26,6 +38,16 @@ public class ItemListenerImpl extends ItemListener {
      */
     private final List<AbstractConfigurer<?, ?>> configurers = new ArrayList<>();
 
+    /**
+     * Applicable configurers, by item class
+     */
+    private final Map<Class<?>, List<AbstractConfigurer<?, ?>>> dispatch = new ConcurrentHashMap<>();
+
+    /**
+     * True once configurer extensions changes are listened to
+     */
+    private final AtomicBoolean listening = new AtomicBoolean();
+
     /**
      * Class constructor in charge to initialize item configurers according to available plugins.
      */
@@ -49,41 +71,145 @@ public class ItemListenerImpl extends ItemListener {
         }
     }
 
+    /**
+     * Items renamed with spaces are renamed once more, when the plugin configuration requests it. The new name is
+     * normalized once, by the first applicable configurer, and the web client, if any, is redirected once to the
+     * final name.
+     */
     @Override
     public void onRenamed(Item item, String oldName, String newName) {
         final Object[] params = {oldName, newName};
         log.entering(getClass().getSimpleName(), "onRenamed", params);
-        for (AbstractConfigurer<?, ?> configurer : configurers) {
-            boolean isRespCommitted = false;
-            try {
-                String name = configurer.doRename(item);
-                if (newName.compareTo(name) != 0) {
-                    StaplerResponse2 rsp = Stapler.getCurrentResponse2();
-                    if (null != rsp) {
-                        isRespCommitted = rsp.isCommitted();
-                        rsp.sendRedirect2("../" + name);
-                    }
-                }
-            } catch (java.lang.IllegalStateException e) {
-                log.log(Level.FINEST, "resp.isCommitted()={0}", isRespCommitted);
-                if (false == isRespCommitted) {
-                    log.log(Level.SEVERE, "error during sendRedirect2", e);
+        final CreateJobAdvancedPlugin cja = CreateJobAdvancedPlugin.get();
+        if (null != cja && cja.getConfiguration().isReplaceSpace() && newName.indexOf(' ') >= 0) {
+            final List<AbstractConfigurer<?, ?>> configurers = getConfigurers(item);
+            if (!configurers.isEmpty()) {
+                final String name = configurers.get(0).doRename(item);
+                if (!newName.equals(name)) {
+                    redirect(name);
                 }
-            } catch (java.io.IOException e) {
-                log.log(Level.SEVERE, "error during sendRedirect2", e);
             }
         }
         log.exiting(getClass().getSimpleName(), "onRenamed");
     }
 
+    @Override
+    public void onLocationChanged(Item item, String oldFullName, String newFullName) {
+        MovedItemsRecomputer.onLocationChanged(this, item, oldFullName, newFullName);
+    }
+
+    /**
+     * Redirect the web client renaming an item to the final item name.
+     *
+     * @param name final item name
+     */
+    private static void redirect(String name) {
+        if (null == Stapler.getCurrentRequest2()) {
+            // renamed by a script or the CLI
+            return;
+        }
+        final StaplerResponse2 rsp = Stapler.getCurrentResponse2();
+        if (null == rsp || rsp.isCommitted()) {
+            log.log(Level.FINEST, "response already committed, no redirect to {0}", name);
+            return;
+        }
+        try {
+            rsp.sendRedirect2("../" + name);
+        } catch (IOException e) {
+            log.log(Level.SEVERE, "error during sendRedirect2", e);
+        }
+    }
+
     @Override
     public void onCreated(Item item) {
-        for (AbstractConfigurer<?, ?> configurer : configurers) {
-            configurer.doCreate(item);
+        if (BatchItemCreator.isCreating(item)) {
+            // already configured by the batch
+            return;
+        }
+        final ConfigurationSession session = ConfigurationSession.current();
+        if (null != session) {
+            session.defer(item);
+            return;
+        }
+        final CreateJobAdvancedPlugin cja = CreateJobAdvancedPlugin.get();
+        final ConfigurationQueue queue = ConfigurationQueue.get();
+        if (null != cja && null != queue && cja.getConfiguration().isAsyncConfiguration()) {
+            // rename inline, so that the creation redirect targets the final item name
+            for (AbstractConfigurer<?, ?> configurer : getConfigurers(item)) {
+                configurer.doRename(item);
+            }
+            queue.submit(item, () -> configure(item));
+        } else {
+            configure(item, true);
         }
     }
 
+    /**
+     * Apply plugin configuration to given created item, and save it.
+     *
+     * @param item created item, possibly used by other threads already
+     */
+    void configure(Item item) {
+        configure(item, false);
+    }
+
+    /**
+     * Apply plugin configuration to given created item, and save it.
+     *
+     * @param item created item
+     * @param created true if the item has just been created by the calling thread, and is not used by other threads
+     *     yet
+     */
+    void configure(Item item, boolean created) {
+        long start = CreationMetrics.beginConfiguration();
+        try {
+            // the item is saved once, whatever the number of changed settings
+            AbstractConfigurer.configureInSession(item, created, () -> {
+                for (AbstractConfigurer<?, ?> configurer : getConfigurers(item)) {
+                    configurer.doCreate(item);
+                }
+            });
+        } finally {
+            CreationMetrics.endConfiguration(start);
+        }
+    }
+
+    /**
+     * @return built-in configurers followed by contributed ones
+     */
     protected List<AbstractConfigurer<?, ?>> getConfigurers() {
-        return configurers;
+        final List<AbstractConfigurer<?, ?>> result = new ArrayList<>(configurers);
+        final ExtensionList<?> extensions = ExtensionList.lookup(AbstractConfigurer.class);
+        if (listening.compareAndSet(false, true)) {
+            extensions.addListener(new ExtensionListListener() {
+                @Override
+                public void onChange() {
+                    dispatch.clear();
+                }
+            });
+        }
+        for (Object configurer : extensions) {
+            result.add((AbstractConfigurer<?, ?>) configurer);
+        }
+        return result;
+    }
+
+    /**
+     * @param item created, renamed or updated item
+     * @return configurers applicable to given item, in order
+     */
+    protected @NonNull List<AbstractConfigurer<?, ?>> getConfigurers(@NonNull Item item) {
+        return dispatch.computeIfAbsent(item.getClass(), this::computeConfigurers);
+    }
+
+    private List<AbstractConfigurer<?, ?>> computeConfigurers(Class<?> type) {
+        final List<AbstractConfigurer<?, ?>> result = new ArrayList<>();
+        for (AbstractConfigurer<?, ?> configurer : getConfigurers()) {
+            if (configurer.isApplicable(type)) {
+                result.add(configurer);
+            }
+        }
+        log.log(Level.FINER, "configurers of {0}: {1}", new Object[] {type.getName(), result});
+        return Collections.unmodifiableList(result);
     }
 }
@@ -0,0 +1,61 @@
+package hudson.plugins.createjobadvanced;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.model.Computer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Process a list of items in parallel on the shared Jenkins thread pool.
+ * <P>
+ * At most one worker per processor is used, the calling thread being one of them, and a single item is processed
+ * inline. Workers take the next item from a shared cursor, so that slow items do not hold back the others.
+ */
+final class ItemWorkers {
+
+    private static final Logger log = Logger.getLogger(CreateJobAdvancedPlugin.class.getName());
+
+    private ItemWorkers() {}
+
+    /**
+     * Apply given action to every given item, and wait for all of them. A runtime exception thrown for an item is
+     * logged, and does not prevent the processing of the others.
+     *
+     * @param items items to be processed
+     * @param action action applied to each item
+     * @param <T> item type
+     * @throws InterruptedException if interrupted while waiting for workers
+     */
+    static <T> void forEach(@NonNull List<T> items, @NonNull Consumer<? super T> action)
+            throws InterruptedException {
+        final AtomicInteger cursor = new AtomicInteger();
+        final Runnable worker = () -> {
+            for (int i = cursor.getAndIncrement(); i < items.size(); i = cursor.getAndIncrement()) {
+                try {
+                    action.accept(items.get(i));
+                } catch (RuntimeException e) {
+                    log.log(Level.SEVERE, "unable to process " + items.get(i), e);
+                }
+            }
+        };
+        final int workers = Math.min(items.size(), Runtime.getRuntime().availableProcessors());
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int i = 1; i < workers; i++) {
+            futures.add(Computer.threadPoolForRemoting.submit(worker));
+        }
+        worker.run();
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                log.log(Level.SEVERE, "error while processing items", e);
+            }
+        }
+    }
+}
@@ -12,7 +12,6 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.logging.Level;
-import jenkins.model.Jenkins;
 import org.jenkinsci.plugins.matrixauth.PermissionEntry;
 import org.jenkinsci.plugins.matrixauth.inheritance.InheritanceStrategy;
 
@@ -40,13 +39,54 @@ public class JobConfigurer extends AbstractConfigurer<Job<?, ?>, AuthorizationMa
             if (null != cja) {
                 super.doCreate(item);
                 Job<?, ?> job = (Job<?, ?>) item;
-                if (cja.isActiveLogRotator()) {
-                    activateLogRotator(job, cja);
+                final PluginConfiguration config = getConfiguration(cja, item);
+                if (config.isActiveLogRotator()) {
+                    long start = System.nanoTime();
+                    activateLogRotator(job, config);
+                    CreationMetrics.record(CreationMetrics.Phase.LOG_ROTATOR, start);
                 }
             }
         }
     }
 
+    @Override
+    protected boolean doReapply(Item item) {
+        boolean changed = false;
+        if (isApplicable(item)) {
+            final CreateJobAdvancedPlugin cja = getPlugin();
+            if (null != cja) {
+                changed = super.doReapply(item);
+                final PluginConfiguration config = getConfiguration(cja, item);
+                if (config.isActiveLogRotator()) {
+                    changed |= activateLogRotator(item, config);
+                }
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    protected boolean isCompliant(Item item) {
+        if (!super.isCompliant(item)) {
+            return false;
+        }
+        final CreateJobAdvancedPlugin cja = getPlugin();
+        if (null == cja || !isApplicable(item)) {
+            return true;
+        }
+        return !getConfiguration(cja, item).isActiveLogRotator() || null != ((Job<?, ?>) item).getBuildDiscarder();
+    }
+
+    @Override
+    protected boolean isApplicable(@Nullable Item item) {
+        return item instanceof Job<?, ?>;
+    }
+
+    @Override
+    protected boolean isApplicable(@NonNull Class<?> itemType) {
+        return Job.class.isAssignableFrom(itemType);
+    }
+
     @Override
     protected final @Nullable AuthorizationMatrixProperty getAuthorizationMatrixProperty(@Nullable Item item) {
         AuthorizationMatrixProperty result = null;
@@ -82,26 +122,32 @@ public class JobConfigurer extends AbstractConfigurer<Job<?, ?>, AuthorizationMa
     /**
      *
      * @param item
-     * @param cja
+     * @param config
+     * @return true if a log rotator has been set
      */
-    private final void activateLogRotator(final Item item, final CreateJobAdvancedPlugin cja) {
-        if (null != item && null != cja && item instanceof Job<?, ?>) {
+    private final boolean activateLogRotator(final Item item, final PluginConfiguration config) {
+        boolean changed = false;
+        if (null != item && null != config && item instanceof Job<?, ?>) {
             Job<?, ?> job = (Job<?, ?>) item;
             // if template, it's possible that log rotator is already defined
-            if (null == job.getBuildDiscarder()) {
+            if (null != job.getBuildDiscarder()) {
+                CreationMetrics.recordSkip(CreationMetrics.Phase.LOG_ROTATOR);
+            } else {
                 LogRotator logrotator = new LogRotator(
-                        cja.getDaysToKeep(),
-                        cja.getNumToKeep(),
-                        cja.getArtifactDaysToKeep(),
-                        cja.getArtifactNumToKeep());
+                        config.getDaysToKeep(),
+                        config.getNumToKeep(),
+                        config.getArtifactDaysToKeep(),
+                        config.getArtifactNumToKeep());
                 try {
                     // with 1.503, the signature changed and might now throw an IOException
                     job.setBuildDiscarder(logrotator);
+                    changed = true;
                 } catch (Exception e) {
                     log.log(Level.SEVERE, "error setting Logrotater", e);
                 }
             }
         }
+        return changed;
     }
 
     /**
@@ -109,8 +155,8 @@ public class JobConfigurer extends AbstractConfigurer<Job<?, ?>, AuthorizationMa
      * @return
      */
     private final @Nullable AuthorizationMatrixProperty.DescriptorImpl getAuthorizationPropertyDescriptor() {
-        return (AuthorizationMatrixProperty.DescriptorImpl)
-                (Jenkins.get().getDescriptor(AuthorizationMatrixProperty.class));
+        return getContext()
+                .getDescriptor(AuthorizationMatrixProperty.class, AuthorizationMatrixProperty.DescriptorImpl.class);
     }
 
     @Override
@@ -160,14 +206,27 @@ public class JobConfigurer extends AbstractConfigurer<Job<?, ?>, AuthorizationMa
         }
     }
 
+    @Override
+    protected @Nullable InheritanceStrategy getInheritanceStrategy(@NonNull AuthorizationMatrixProperty authProperty) {
+        return authProperty.getInheritanceStrategy();
+    }
+
+    @Override
+    protected boolean hasExplicitPermission(
+            @NonNull AuthorizationMatrixProperty authProperty,
+            @NonNull Permission perm,
+            @NonNull PermissionEntry permEntry) {
+        return authProperty.hasExplicitPermission(permEntry, perm);
+    }
+
     @Override
     protected final boolean showPermission(@Nullable Permission perm) {
         boolean result = false;
         if (perm != null) {
-            AuthorizationMatrixProperty.DescriptorImpl propDescriptor = getAuthorizationPropertyDescriptor();
-            if (null != propDescriptor) {
-                result = propDescriptor.showPermission(perm);
-            }
+            result = getContext().showPermission(AuthorizationMatrixProperty.class, perm, p -> {
+                AuthorizationMatrixProperty.DescriptorImpl propDescriptor = getAuthorizationPropertyDescriptor();
+                return null != propDescriptor && propDescriptor.showPermission(p);
+            });
         }
         return result;
     }
@@ -47,7 +47,9 @@ public final class MavenConfigurer extends JobConfigurer {
         super.doCreate(item);
         if ((item instanceof MavenModuleSet)) {
             MavenModuleSet mavenModuleSet = (MavenModuleSet) item;
+            long start = System.nanoTime();
             preConfigureMavenJob(mavenModuleSet);
+            CreationMetrics.record(CreationMetrics.Phase.MAVEN, start);
         }
         log.finer("< " + this.getClass().getName() + ".onCreated()");
     }
@@ -60,12 +62,13 @@ public final class MavenConfigurer extends JobConfigurer {
         final CreateJobAdvancedPlugin cja = getPlugin();
         if (null != cja) {
             log.finer("> " + this.getClass().getName() + ".preConfigureMavenJob(MavenModuleSet)");
-            mavenModuleSet.setIsArchivingDisabled(cja.isMvnArchivingDisabled());
+            final PluginConfiguration config = getConfiguration(cja, mavenModuleSet);
+            mavenModuleSet.setIsArchivingDisabled(config.isMvnArchivingDisabled());
             MavenMailer m = mavenModuleSet.getReporters().get(MavenMailer.class);
             if (m != null) {
-                m.perModuleEmail = cja.isMvnPerModuleEmail();
+                m.perModuleEmail = config.isMvnPerModuleEmail();
             } else {
-                mavenModuleSet.getReporters().add(new MavenMailer(null, true, false, cja.isMvnPerModuleEmail()));
+                mavenModuleSet.getReporters().add(new MavenMailer(null, true, false, config.isMvnPerModuleEmail()));
             }
             log.finer("< " + this.getClass().getName() + ".preConfigureMavenJob(MavenModuleSet)");
         }
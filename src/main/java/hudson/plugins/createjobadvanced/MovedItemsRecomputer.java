@@ -0,0 +1,153 @@
+package hudson.plugins.createjobadvanced;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.BulkChange;
+import hudson.model.AbstractItem;
+import hudson.model.Item;
+import hudson.model.ItemGroup;
+import hudson.model.Items;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Recompute the dynamic permissions of renamed or moved items.
+ * <P>
+ * Jenkins notifies the location change of a folder first, then the one of each item it contains. The whole subtree is
+ * processed on the first notification, in parallel on the shared Jenkins thread pool, each item being saved once.
+ * The subtree root is then remembered by the notifying thread, and the following notifications of its items are
+ * ignored.
+ * <P>
+ * {@link FolderPolicyIndex} and {@link GrantProvenance} follow moved items on their own, and are notified first.
+ */
+final class MovedItemsRecomputer {
+
+    private static final Logger log = Logger.getLogger(CreateJobAdvancedPlugin.class.getName());
+
+    /**
+     * Subtree processed by the current thread, whose item notifications are still expected
+     */
+    private static final ThreadLocal<Subtree> PROCESSED = new ThreadLocal<>();
+
+    private MovedItemsRecomputer() {}
+
+    /**
+     * @param listener item listener providing configurers
+     * @param item renamed or moved item
+     * @param oldFullName former item full name
+     * @param newFullName new item full name
+     */
+    static void onLocationChanged(
+            @NonNull ItemListenerImpl listener,
+            @NonNull Item item,
+            @NonNull String oldFullName,
+            @NonNull String newFullName) {
+        final CreateJobAdvancedPlugin cja = CreateJobAdvancedPlugin.get();
+        if (null == cja || !cja.getConfiguration().isRecomputeOnMove()) {
+            return;
+        }
+        // the item may have been renamed again, e.g. normalized, before this notification
+        final String fullName = item.getFullName();
+        final Subtree processed = PROCESSED.get();
+        if (null != processed && processed.contains(oldFullName, fullName)) {
+            if (--processed.remaining <= 0) {
+                PROCESSED.remove();
+            }
+            return;
+        }
+        PROCESSED.remove();
+
+        final List<Item> items = new ArrayList<>();
+        items.add(item);
+        if (item instanceof ItemGroup<?>) {
+            try (ACLContext ignored = ACL.as2(ACL.SYSTEM2)) {
+                items.addAll(Items.allItems((ItemGroup<?>) item, Item.class));
+            }
+        }
+
+        if (items.size() > 1) {
+            PROCESSED.set(new Subtree(oldFullName, fullName, items.size() - 1));
+        }
+
+        final String oldName = oldFullName.substring(oldFullName.lastIndexOf('/') + 1);
+        final PluginConfiguration global = cja.getConfiguration();
+        final AtomicInteger updated = new AtomicInteger();
+        final long start = System.nanoTime();
+        try {
+            ItemWorkers.forEach(items, moved -> {
+                final String movedOldFullName = oldFullName + moved.getFullName().substring(fullName.length());
+                final int slash = movedOldFullName.lastIndexOf('/');
+                final PluginConfiguration oldConfig = FolderPolicyIndex.get()
+                        .resolveFormer(
+                                slash < 0 ? "" : movedOldFullName.substring(0, slash), global, oldFullName, fullName);
+                final String movedOldName = moved == item ? oldName : moved.getName();
+                recompute(listener, moved, movedOldName, oldConfig, updated);
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.log(Level.WARNING, "interrupted while recomputing permissions of " + fullName, e);
+        }
+        log.log(Level.FINE, "{0} moved to {1}: {2}/{3} items updated in {4} ms", new Object[] {
+            oldFullName, fullName, updated.get(), items.size(), (System.nanoTime() - start) / 1_000_000
+        });
+    }
+
+    private static void recompute(
+            ItemListenerImpl listener,
+            Item item,
+            String oldName,
+            PluginConfiguration oldConfig,
+            AtomicInteger updated) {
+        try (ACLContext ignored = ACL.as2(ACL.SYSTEM2)) {
+            final List<AbstractConfigurer<?, ?>> configurers = listener.getConfigurers(item);
+            if (configurers.isEmpty() || !(item instanceof AbstractItem)) {
+                return;
+            }
+            // the item is saved once, and not at all when its permissions are unchanged
+            try (BulkChange bc = new BulkChange((AbstractItem) item)) {
+                boolean changed = false;
+                for (AbstractConfigurer<?, ?> configurer : configurers) {
+                    changed |= configurer.doRecompute(item, oldName, oldConfig);
+                }
+                if (changed) {
+                    bc.commit();
+                    updated.incrementAndGet();
+                } else {
+                    bc.abort();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.log(Level.WARNING, "unable to recompute permissions of " + item.getFullName(), e);
+        }
+    }
+
+    /**
+     * Renamed or moved folder, processed with the items it contains.
+     */
+    private static final class Subtree {
+
+        private final String oldPrefix;
+
+        private final String prefix;
+
+        /**
+         * Number of item notifications still expected
+         */
+        private int remaining;
+
+        Subtree(String oldFullName, String fullName, int remaining) {
+            this.oldPrefix = oldFullName + "/";
+            this.prefix = fullName + "/";
+            this.remaining = remaining;
+        }
+
+        boolean contains(String oldFullName, String fullName) {
+            return oldFullName.startsWith(oldPrefix) && fullName.startsWith(prefix);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package hudson.plugins.createjobadvanced;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.init.InitMilestone;
+import hudson.init.Initializer;
+import hudson.util.PluginServletFilter;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.FilterConfig;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Replace spaces in the name of items created through {@code createItem} requests, before the item reaches the disk.
+ * <P>
+ * Items are then created directly under their final name, instead of being created, saved, then renamed by
+ * {@link ItemListenerImpl}.
+ */
+public final class NameNormalizingFilter implements Filter {
+
+    private static final Logger log = Logger.getLogger(CreateJobAdvancedPlugin.class.getName());
+
+    /**
+     * Name of the item name request parameter
+     */
+    private static final String NAME_PARAMETER = "name";
+
+    @Initializer(after = InitMilestone.PLUGINS_STARTED)
+    public static void register() throws ServletException {
+        PluginServletFilter.addFilter(new NameNormalizingFilter());
+    }
+
+    @Override
+    public void init(FilterConfig filterConfig) {
+        // nothing to initialize
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        ServletRequest filtered = request;
+        if (request instanceof HttpServletRequest) {
+            HttpServletRequest httpRequest = (HttpServletRequest) request;
+            // check the URL first, reading parameters may consume the request body
+            if ("POST".equals(httpRequest.getMethod())
+                    && httpRequest.getRequestURI().endsWith("/createItem")
+                    && isActive()) {
+                String name = httpRequest.getParameter(NAME_PARAMETER);
+                if (null != name && name.contains(" ")) {
+                    String normalized = normalize(name);
+                    log.log(Level.FINE, "create item {0} as {1}", new Object[] {name, normalized});
+                    filtered = new NormalizedNameRequest(httpRequest, normalized);
+                }
+            }
+        }
+        chain.doFilter(filtered, response);
+    }
+
+    @Override
+    public void destroy() {
+        // nothing to release
+    }
+
+    /**
+     * @param name item name
+     * @return given name with spaces replaced
+     */
+    static @NonNull String normalize(@NonNull String name) {
+        return name.replace(' ', '-');
+    }
+
+    private static boolean isActive() {
+        CreateJobAdvancedPlugin cja = CreateJobAdvancedPlugin.get();
+        if (null == cja) {
+            return false;
+        }
+        PluginConfiguration config = cja.getConfiguration();
+        return config.isReplaceSpace() && config.isNormalizeNameOnRequest();
+    }
+
+    /**
+     * Request exposing a normalized item name parameter.
+     */
+    private static final class NormalizedNameRequest extends HttpServletRequestWrapper {
+
+        private final String name;
+
+        NormalizedNameRequest(HttpServletRequest request, String name) {
+            super(request);
+            this.name = name;
+        }
+
+        @Override
+        public String getParameter(String parameter) {
+            return NAME_PARAMETER.equals(parameter) ? name : super.getParameter(parameter);
+        }
+
+        @Override
+        public String[] getParameterValues(String parameter) {
+            return NAME_PARAMETER.equals(parameter) ? new String[] {name} : super.getParameterValues(parameter);
+        }
+
+        @Override
+        public Map<String, String[]> getParameterMap() {
+            Map<String, String[]> result = new HashMap<>(super.getParameterMap());
+            result.put(NAME_PARAMETER, new String[] {name});
+            return result;
+        }
+    }
+}
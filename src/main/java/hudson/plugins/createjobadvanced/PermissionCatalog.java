@@ -0,0 +1,111 @@
+package hudson.plugins.createjobadvanced;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import hudson.init.InitMilestone;
+import hudson.init.Initializer;
+import hudson.security.Permission;
+import hudson.security.PermissionGroup;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Precomputed permissions which can be granted by dynamic permission rules, grouped by permission group title, with
+ * their implied-by chains.
+ * <P>
+ * The catalog is built once and shared. It is dropped when plugins are started and rebuilt whenever the number of
+ * registered permissions changes, e.g. when a plugin is dynamically loaded.
+ */
+public final class PermissionCatalog {
+
+    private static volatile PermissionCatalog instance;
+
+    private final int registeredPermissions;
+    private final Map<String, List<Permission>> permissions;
+    private final Map<Permission, String> impliedBy;
+
+    private PermissionCatalog(int registeredPermissions) {
+        this.registeredPermissions = registeredPermissions;
+        final Map<String, List<Permission>> groups = new TreeMap<>();
+        addEnabledPermissionsForGroup(groups, hudson.model.Item.class);
+        addEnabledPermissionsForGroup(groups, hudson.model.Run.class);
+        this.permissions = Collections.unmodifiableMap(groups);
+
+        final Map<Permission, String> chains = new HashMap<>();
+        for (List<Permission> group : groups.values()) {
+            for (Permission permission : group) {
+                chains.put(permission, computeImpliedByList(permission));
+            }
+        }
+        this.impliedBy = chains;
+    }
+
+    /**
+     * @return current catalog, rebuilt when permissions have been registered since it was built
+     */
+    public static @NonNull PermissionCatalog get() {
+        final int registered = Permission.getAll().size();
+        PermissionCatalog result = instance;
+        if (null == result || result.registeredPermissions != registered) {
+            result = new PermissionCatalog(registered);
+            instance = result;
+        }
+        return result;
+    }
+
+    /**
+     * Drop the catalog, permissions of all plugins are registered once plugins are started.
+     */
+    @Initializer(after = InitMilestone.PLUGINS_STARTED)
+    public static void invalidate() {
+        instance = null;
+    }
+
+    /**
+     * @return enabled permissions by permission group title, sorted by title
+     */
+    public @NonNull Map<String, List<Permission>> getPermissions() {
+        return permissions;
+    }
+
+    /**
+     * @param permission permission
+     * @return space separated IDs of the permissions implying given permission
+     */
+    public @NonNull String getImpliedByList(@Nullable Permission permission) {
+        final String result = null == permission ? null : impliedBy.get(permission);
+        return null == result ? computeImpliedByList(permission) : result;
+    }
+
+    private static String computeImpliedByList(@Nullable Permission p) {
+        final StringBuilder result = new StringBuilder();
+        while (null != p && null != p.impliedBy) {
+            p = p.impliedBy;
+            if (result.length() > 0) {
+                result.append(' ');
+            }
+            result.append(p.getId());
+        }
+        return result.toString();
+    }
+
+    private static void addEnabledPermissionsForGroup(
+            final Map<String, List<Permission>> allEnabledPerms, Class<?> owner) {
+        final PermissionGroup permissionGroup = PermissionGroup.get(owner);
+        if (permissionGroup != null) {
+            final List<Permission> enabledPerms = new ArrayList<>();
+            for (Permission permission : permissionGroup.getPermissions()) {
+                if (permission.enabled) {
+                    enabledPerms.add(permission);
+                }
+            }
+            if (!enabledPerms.isEmpty()) {
+                allEnabledPerms.put(permissionGroup.title.toString(), Collections.unmodifiableList(enabledPerms));
+            }
+        }
+    }
+}
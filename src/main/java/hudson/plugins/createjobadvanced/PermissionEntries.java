@@ -0,0 +1,51 @@
+package hudson.plugins.createjobadvanced;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import org.jenkinsci.plugins.matrixauth.PermissionEntry;
+
+/**
+ * Canonical {@link PermissionEntry} instances shared by the authorization matrices of all items.
+ * <P>
+ * Authorization matrix properties keep a reference to the entries they are given, so granting interned entries lets
+ * thousands of items carrying the same owner, anonymous or group grants share a single instance of each entry.
+ * Entries are weakly referenced, and dropped once no item uses them anymore.
+ */
+public final class PermissionEntries {
+
+    /**
+     * Canonical entries, weakly referenced
+     */
+    private static final Interner<PermissionEntry> ENTRIES = Interners.newWeakInterner();
+
+    private PermissionEntries() {}
+
+    /**
+     * @param sid user ID
+     * @return canonical user entry
+     */
+    public static @NonNull PermissionEntry user(@NonNull String sid) {
+        return intern(PermissionEntry.user(sid));
+    }
+
+    /**
+     * @param name group name
+     * @return canonical group entry
+     */
+    public static @NonNull PermissionEntry group(@NonNull String name) {
+        return intern(PermissionEntry.group(name));
+    }
+
+    /**
+     * @param entry permission entry
+     * @return canonical instance equal to given entry
+     */
+    public static @Nullable PermissionEntry intern(@Nullable PermissionEntry entry) {
+        if (null == entry) {
+            return null;
+        }
+        return ENTRIES.intern(entry);
+    }
+}
@@ -0,0 +1,72 @@
+package hudson.plugins.createjobadvanced;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import hudson.security.Permission;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import org.jenkinsci.plugins.matrixauth.PermissionEntry;
+
+/**
+ * In-memory collection of every permission grant to be applied to an item.
+ * <P>
+ * Grants are accumulated during item configuration and applied in one go, so that the authorization matrix property
+ * of the item is rebuilt and persisted only once.
+ */
+public final class PermissionPlan {
+
+    /**
+     * Permission entries to be granted, by Jenkins permission.
+     */
+    private final Map<Permission, Set<PermissionEntry>> grants = new LinkedHashMap<>();
+
+    /**
+     * Add given Jenkins permissions for given permission entry to this plan.
+     *
+     * @param permEnt permission entry to be granted
+     * @param jenkinsPermissions permissions to grant
+     * @return this plan
+     */
+    public @NonNull PermissionPlan grant(@Nullable PermissionEntry permEnt, @Nullable Permission... jenkinsPermissions) {
+        if (null != permEnt && null != jenkinsPermissions) {
+            for (Permission perm : jenkinsPermissions) {
+                if (null != perm) {
+                    grants.computeIfAbsent(perm, p -> new LinkedHashSet<>()).add(permEnt);
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * @param perm Jenkins permission
+     * @param permEnt permission entry
+     * @return true when given permission is planned for given permission entry
+     */
+    public boolean contains(@NonNull Permission perm, @NonNull PermissionEntry permEnt) {
+        final Set<PermissionEntry> entries = grants.get(perm);
+        return null != entries && entries.contains(permEnt);
+    }
+
+    /**
+     * @return true when no grant has been planned
+     */
+    public boolean isEmpty() {
+        return grants.isEmpty();
+    }
+
+    /**
+     * @return read-only view of planned grants, by Jenkins permission
+     */
+    public @NonNull Map<Permission, Set<PermissionEntry>> getGrants() {
+        return Collections.unmodifiableMap(grants);
+    }
+
+    @Override
+    public String toString() {
+        return "[PermissionPlan: " + grants + "]";
+    }
+}
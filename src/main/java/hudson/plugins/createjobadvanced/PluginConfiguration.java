@@ -0,0 +1,269 @@
+package hudson.plugins.createjobadvanced;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Immutable snapshot of the plugin configuration.
+ * <P>
+ * A new snapshot is published each time the configuration is loaded or saved, so that item listeners always read a
+ * consistent configuration without locking.
+ */
+public final class PluginConfiguration {
+
+    private final boolean autoOwnerRights;
+    private final boolean autoPublicBrowse;
+    private final boolean replaceSpace;
+    private final boolean normalizeNameOnRequest;
+
+    private final boolean activeLogRotator;
+    private final int daysToKeep;
+    private final int numToKeep;
+    private final int artifactDaysToKeep;
+    private final int artifactNumToKeep;
+
+    private final boolean activeDynamicPermissions;
+    private final String extractPattern;
+
+    private final boolean mvnArchivingDisabled;
+    private final boolean mvnPerModuleEmail;
+
+    private final boolean asyncConfiguration;
+    private final boolean batchSessions;
+    private final boolean recomputeOnMove;
+
+    private final List<DynamicPermissionConfig> dynamicPermissionConfigs;
+
+    /**
+     * Compiled dynamic permission rules, lazily built on first use
+     */
+    private volatile DynamicPermissionRules dynamicPermissionRules;
+
+    /**
+     * Fingerprint of the settings applied to existing items, lazily computed on first use
+     */
+    private volatile Long policyFingerprint;
+
+    PluginConfiguration(
+            boolean autoOwnerRights,
+            boolean autoPublicBrowse,
+            boolean replaceSpace,
+            boolean normalizeNameOnRequest,
+            boolean activeLogRotator,
+            int daysToKeep,
+            int numToKeep,
+            int artifactDaysToKeep,
+            int artifactNumToKeep,
+            boolean activeDynamicPermissions,
+            @Nullable String extractPattern,
+            boolean mvnArchivingDisabled,
+            boolean mvnPerModuleEmail,
+            boolean asyncConfiguration,
+            boolean batchSessions,
+            boolean recomputeOnMove,
+            @NonNull List<DynamicPermissionConfig> dynamicPermissionConfigs) {
+        this.autoOwnerRights = autoOwnerRights;
+        this.autoPublicBrowse = autoPublicBrowse;
+        this.replaceSpace = replaceSpace;
+        this.normalizeNameOnRequest = normalizeNameOnRequest;
+        this.activeLogRotator = activeLogRotator;
+        this.daysToKeep = daysToKeep;
+        this.numToKeep = numToKeep;
+        this.artifactDaysToKeep = artifactDaysToKeep;
+        this.artifactNumToKeep = artifactNumToKeep;
+        this.activeDynamicPermissions = activeDynamicPermissions;
+        this.extractPattern = extractPattern;
+        this.mvnArchivingDisabled = mvnArchivingDisabled;
+        this.mvnPerModuleEmail = mvnPerModuleEmail;
+        this.asyncConfiguration = asyncConfiguration;
+        this.batchSessions = batchSessions;
+        this.recomputeOnMove = recomputeOnMove;
+        // definitions are copied, they remain mutable through their data bound setters
+        final List<DynamicPermissionConfig> configs = new ArrayList<>(dynamicPermissionConfigs.size());
+        for (DynamicPermissionConfig config : dynamicPermissionConfigs) {
+            configs.add(config.freeze());
+        }
+        this.dynamicPermissionConfigs = Collections.unmodifiableList(configs);
+    }
+
+    /**
+     * Compiled dynamic permission rules are built on first use, once all plugins permissions are registered.
+     *
+     * @return compiled dynamic permission rules
+     */
+    public @NonNull DynamicPermissionRules getDynamicPermissionRules() {
+        DynamicPermissionRules rules = dynamicPermissionRules;
+        if (null == rules) {
+            rules = DynamicPermissionRules.compile(extractPattern, dynamicPermissionConfigs);
+            dynamicPermissionRules = rules;
+        }
+        return rules;
+    }
+
+    /**
+     * Fingerprint of the settings an existing item must comply with: public browse, log rotator activation and
+     * dynamic permissions. Fingerprints are stable across restarts.
+     *
+     * @return policy fingerprint
+     */
+    public long getPolicyFingerprint() {
+        Long result = policyFingerprint;
+        if (null == result) {
+            final StringBuilder policy = new StringBuilder();
+            policy.append(autoPublicBrowse).append('|').append(activeLogRotator).append('|');
+            if (activeDynamicPermissions) {
+                policy.append(extractPattern);
+                for (DynamicPermissionConfig config : dynamicPermissionConfigs) {
+                    policy.append('|')
+                            .append(config.getGroupFormat())
+                            .append(new TreeSet<>(config.getCheckedPermissionIds()))
+                            .append(config.getExtractPattern());
+                }
+            }
+            long hash = 1125899906842597L;
+            for (int i = 0; i < policy.length(); i++) {
+                hash = 31 * hash + policy.charAt(i);
+            }
+            result = hash;
+            policyFingerprint = result;
+        }
+        return result;
+    }
+
+    /**
+     * @return the dynamicPermissionConfigs
+     */
+    public @NonNull List<DynamicPermissionConfig> getDynamicPermissionConfigs() {
+        return dynamicPermissionConfigs;
+    }
+
+    /**
+     *
+     * @return true when automatic owner right assigment  option is activated
+     */
+    public boolean isAutoOwnerRights() {
+        return autoOwnerRights;
+    }
+
+    /**
+     *
+     * @return true when automatic public browse assigment option is activated
+     */
+    public boolean isAutoPublicBrowse() {
+        return autoPublicBrowse;
+    }
+
+    /**
+     *
+     * @return true when replace space option is activated
+     */
+    public boolean isReplaceSpace() {
+        return replaceSpace;
+    }
+
+    /**
+     *
+     * @return true when spaces are replaced in create item requests, before the item is created
+     */
+    public boolean isNormalizeNameOnRequest() {
+        return normalizeNameOnRequest;
+    }
+
+    /**
+     *
+     * @return true when log rotator option is activated
+     */
+    public boolean isActiveLogRotator() {
+        return activeLogRotator;
+    }
+
+    /**
+     *
+     * @return the days to keep builds
+     */
+    public int getDaysToKeep() {
+        return daysToKeep;
+    }
+
+    /**
+     *
+     * @return the number of build to be kept
+     */
+    public int getNumToKeep() {
+        return numToKeep;
+    }
+
+    /**
+     *
+     * @return the days to keep build artifacts
+     */
+    public int getArtifactDaysToKeep() {
+        return artifactDaysToKeep;
+    }
+
+    /**
+     *
+     * @return the number of build to keep with artifacts
+     */
+    public int getArtifactNumToKeep() {
+        return artifactNumToKeep;
+    }
+
+    /**
+     * @return the extractPattern
+     */
+    public @Nullable String getExtractPattern() {
+        return extractPattern;
+    }
+
+    /**
+     * @return the activeDynamicPermissions
+     */
+    public boolean isActiveDynamicPermissions() {
+        return activeDynamicPermissions;
+    }
+
+    /**
+     *
+     * @return true when Maven archiving is disabled
+     */
+    public boolean isMvnArchivingDisabled() {
+        return mvnArchivingDisabled;
+    }
+
+    /**
+     *
+     * @return true when Maven mails are sent per module
+     */
+    public boolean isMvnPerModuleEmail() {
+        return mvnPerModuleEmail;
+    }
+
+    /**
+     *
+     * @return true when created items are configured in background
+     */
+    public boolean isAsyncConfiguration() {
+        return asyncConfiguration;
+    }
+
+    /**
+     *
+     * @return true when the configuration of items created by builds is deferred until the build ends
+     */
+    public boolean isBatchSessions() {
+        return batchSessions;
+    }
+
+    /**
+     *
+     * @return true when the dynamic permissions of renamed or moved items are recomputed
+     */
+    public boolean isRecomputeOnMove() {
+        return recomputeOnMove;
+    }
+}
@@ -0,0 +1,311 @@
+package hudson.plugins.createjobadvanced;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import hudson.BulkChange;
+import hudson.model.AbstractItem;
+import hudson.model.Item;
+import hudson.model.listeners.ItemListener;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.model.Jenkins;
+import net.sf.json.JSONObject;
+
+/**
+ * Apply current plugin configuration again to existing items.
+ * <P>
+ * Items are processed by a dedicated fork-join pool. Each item is updated inside a {@link BulkChange}, so that it is
+ * saved at most once whatever the number of applied settings.
+ */
+public final class PolicyReapplier {
+
+    private static final Logger log = Logger.getLogger(CreateJobAdvancedPlugin.class.getName());
+
+    /**
+     * Number of processed items between two progress reports
+     */
+    private static final int PROGRESS_STEP = 500;
+
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private int maxRate;
+    private boolean dryRun;
+    private boolean nonCompliantOnly;
+    private @Nullable String folder;
+    private @Nullable PrintStream progress;
+
+    /**
+     * @param parallelism number of worker threads
+     * @return this reapplier
+     */
+    public @NonNull PolicyReapplier withParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        return this;
+    }
+
+    /**
+     * @param maxRate maximum number of processed items per second, 0 or less for no limit
+     * @return this reapplier
+     */
+    public @NonNull PolicyReapplier withMaxRate(int maxRate) {
+        this.maxRate = maxRate;
+        return this;
+    }
+
+    /**
+     * @param dryRun true to only report items which would be updated
+     * @return this reapplier
+     */
+    public @NonNull PolicyReapplier withDryRun(boolean dryRun) {
+        this.dryRun = dryRun;
+        return this;
+    }
+
+    /**
+     * @param nonCompliantOnly true to only process the items reported as not compliant by the last
+     *     {@link ComplianceIndex} scan, all items are processed if no scan has completed yet
+     * @return this reapplier
+     */
+    public @NonNull PolicyReapplier withNonCompliantOnly(boolean nonCompliantOnly) {
+        this.nonCompliantOnly = nonCompliantOnly;
+        return this;
+    }
+
+    /**
+     * @param folder full name of the folder to be processed, null or empty for all items
+     * @return this reapplier
+     */
+    public @NonNull PolicyReapplier withFolder(@Nullable String folder) {
+        this.folder = null == folder || folder.isEmpty() ? null : folder;
+        return this;
+    }
+
+    /**
+     * @param progress stream receiving progress reports, in addition to the plugin logger
+     * @return this reapplier
+     */
+    public @NonNull PolicyReapplier withProgress(@Nullable PrintStream progress) {
+        this.progress = progress;
+        return this;
+    }
+
+    /**
+     * Apply plugin configuration to all selected items.
+     *
+     * @return processing summary
+     * @throws InterruptedException if interrupted while waiting for workers
+     */
+    public @NonNull Result run() throws InterruptedException {
+        final ItemListenerImpl listener = ItemListener.all().get(ItemListenerImpl.class);
+        final List<Item> items = collectItems();
+        final Result result = new Result(items.size(), dryRun);
+        final long started = System.nanoTime();
+        final long interval = maxRate > 0 ? TimeUnit.SECONDS.toNanos(1) / maxRate : 0;
+        final AtomicLong nextSlot = new AtomicLong(started);
+
+        report("re-applying plugin configuration to " + items.size() + " items" + (dryRun ? " (dry run)" : ""));
+        if (!AbstractConfigurer.isSecurityEnabled()) {
+            report("Jenkins security mode disabled, permissions are left unchanged");
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.submit(() -> items.parallelStream().forEach(item -> {
+                        throttle(nextSlot, interval);
+                        process(item, listener, result);
+                    }))
+                    .get();
+        } catch (ExecutionException e) {
+            log.log(Level.SEVERE, "error while re-applying plugin configuration", e);
+        } finally {
+            pool.shutdown();
+        }
+        result.elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        report(result.toString());
+        return result;
+    }
+
+    private void process(Item item, @Nullable ItemListenerImpl listener, Result result) {
+        try (ACLContext ignored = ACL.as2(ACL.SYSTEM2)) {
+            final List<AbstractConfigurer<?, ?>> configurers =
+                    null == listener ? Collections.emptyList() : listener.getConfigurers(item);
+            if (!configurers.isEmpty()) {
+                if (dryRun ? !isCompliant(item, configurers) : reapply(item, configurers)) {
+                    result.updated.incrementAndGet();
+                } else {
+                    result.skipped.incrementAndGet();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            result.failed.incrementAndGet();
+            log.log(Level.WARNING, "unable to re-apply plugin configuration to " + item.getFullName(), e);
+        }
+        int processed = result.processed.incrementAndGet();
+        if (processed % PROGRESS_STEP == 0) {
+            report(processed + "/" + result.total + " items processed");
+        }
+    }
+
+    private static boolean isCompliant(Item item, List<AbstractConfigurer<?, ?>> configurers) {
+        for (AbstractConfigurer<?, ?> configurer : configurers) {
+            if (!configurer.isCompliant(item)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean reapply(Item item, List<AbstractConfigurer<?, ?>> configurers) throws IOException {
+        boolean changed = false;
+        if (item instanceof AbstractItem) {
+            // settings are saved once, when the change is committed, and not at all when nothing changed
+            try (BulkChange bc = new BulkChange((AbstractItem) item)) {
+                for (AbstractConfigurer<?, ?> configurer : configurers) {
+                    changed |= configurer.doReapply(item);
+                }
+                if (changed) {
+                    bc.commit();
+                } else {
+                    bc.abort();
+                }
+            }
+        }
+        return changed;
+    }
+
+    private static void throttle(AtomicLong nextSlot, long interval) {
+        if (interval <= 0) {
+            return;
+        }
+        long slot = nextSlot.getAndAdd(interval);
+        long wait = slot - System.nanoTime();
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private List<Item> collectItems() {
+        final ComplianceIndex index = nonCompliantOnly ? ComplianceIndex.get() : null;
+        if (nonCompliantOnly && null == index) {
+            report("no compliance scan completed yet, processing all items");
+        }
+        final Set<String> selected = null == index ? null : new HashSet<>(index.getNonCompliantItems());
+        List<Item> result = new ArrayList<>();
+        try (ACLContext ignored = ACL.as2(ACL.SYSTEM2)) {
+            for (Item item : Jenkins.get().getAllItems()) {
+                String fullName = item.getFullName();
+                if ((null == folder || fullName.equals(folder) || fullName.startsWith(folder + "/"))
+                        && (null == selected || selected.contains(fullName))) {
+                    result.add(item);
+                }
+            }
+        }
+        return result;
+    }
+
+    private void report(String message) {
+        log.info(message);
+        if (null != progress) {
+            progress.println(message);
+        }
+    }
+
+    /**
+     * Summary of a re-apply run.
+     */
+    public static final class Result {
+
+        private final int total;
+        private final boolean dryRun;
+        private final AtomicInteger processed = new AtomicInteger();
+        private final AtomicInteger updated = new AtomicInteger();
+        private final AtomicInteger skipped = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private volatile long elapsedMillis;
+
+        Result(int total, boolean dryRun) {
+            this.total = total;
+            this.dryRun = dryRun;
+        }
+
+        /**
+         * @return number of selected items
+         */
+        public int getTotal() {
+            return total;
+        }
+
+        /**
+         * @return number of processed items
+         */
+        public int getProcessed() {
+            return processed.get();
+        }
+
+        /**
+         * @return number of items handled by a configurer, which are or would be updated
+         */
+        public int getUpdated() {
+            return updated.get();
+        }
+
+        /**
+         * @return number of items handled by a configurer, left unchanged as they already comply
+         */
+        public int getSkipped() {
+            return skipped.get();
+        }
+
+        /**
+         * @return number of items which could not be updated
+         */
+        public int getFailed() {
+            return failed.get();
+        }
+
+        /**
+         * @return run duration in milliseconds
+         */
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        /**
+         * @return JSON representation of this summary
+         */
+        public @NonNull JSONObject toJSON() {
+            JSONObject json = new JSONObject();
+            json.put("dryRun", dryRun);
+            json.put("total", total);
+            json.put("processed", getProcessed());
+            json.put("updated", getUpdated());
+            json.put("skipped", getSkipped());
+            json.put("failed", getFailed());
+            json.put("elapsedMillis", elapsedMillis);
+            return json;
+        }
+
+        @Override
+        public String toString() {
+            return (dryRun ? "[dry run] " : "") + getProcessed() + "/" + total + " items processed, " + getUpdated()
+                    + " updated, " + getSkipped() + " already compliant, " + getFailed() + " failed in "
+                    + elapsedMillis + " ms";
+        }
+    }
+}
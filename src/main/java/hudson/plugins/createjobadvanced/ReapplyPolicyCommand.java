@@ -0,0 +1,47 @@
+package hudson.plugins.createjobadvanced;
+
+import hudson.Extension;
+import hudson.cli.CLICommand;
+import jenkins.model.Jenkins;
+import org.kohsuke.args4j.Option;
+
+/**
+ * CLI command applying current plugin configuration again to existing items.
+ */
+@Extension
+public class ReapplyPolicyCommand extends CLICommand {
+
+    @Option(name = "--dry-run", usage = "Only report items which would be updated.")
+    public boolean dryRun;
+
+    @Option(name = "--threads", usage = "Number of worker threads, defaults to the number of processors.")
+    public int threads = Runtime.getRuntime().availableProcessors();
+
+    @Option(name = "--rate", usage = "Maximum number of items processed per second, 0 for no limit.")
+    public int rate;
+
+    @Option(name = "--non-compliant", usage = "Only process items reported as not compliant by the last scan.")
+    public boolean nonCompliant;
+
+    @Option(name = "--folder", usage = "Full name of the folder to be processed, all items by default.")
+    public String folder;
+
+    @Override
+    public String getShortDescription() {
+        return "Applies Create Job Advanced permissions and log rotator settings to existing items.";
+    }
+
+    @Override
+    protected int run() throws Exception {
+        Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+        PolicyReapplier.Result result = new PolicyReapplier()
+                .withDryRun(dryRun)
+                .withParallelism(threads)
+                .withMaxRate(rate)
+                .withFolder(folder)
+                .withNonCompliantOnly(nonCompliant)
+                .withProgress(stdout)
+                .run();
+        return result.getFailed() == 0 ? 0 : 1;
+    }
+}
@@ -0,0 +1,271 @@
+package hudson.plugins.createjobadvanced;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.model.Jenkins;
+import jenkins.util.Timer;
+
+/**
+ * Append-only journal of the items deferred by open configuration sessions, so that items created by sessions
+ * interrupted by a restart or a crash are still configured.
+ * <P>
+ * Each deferred item, item rename and session end is appended as a record to
+ * {@code $JENKINS_HOME/createjobadvanced/sessions.journal}. Records are buffered in memory and written in one append,
+ * when a session ends, when the buffer is full, or shortly after the first buffered record, to a file kept open while
+ * sessions are open. The journal is deleted once no session is open anymore. On startup, the items of the sessions
+ * not ended are replayed from it, a truncated last record being ignored.
+ */
+final class SessionJournal {
+
+    private static final Logger log = Logger.getLogger(CreateJobAdvancedPlugin.class.getName());
+
+    private static final byte DEFERRED = 'D';
+    private static final byte RENAMED = 'R';
+    private static final byte ENDED = 'E';
+
+    /**
+     * Buffered size written at once, in bytes
+     */
+    private static final int FLUSH_SIZE = 64 * 1024;
+
+    /**
+     * Delay before buffered records are written, in milliseconds
+     */
+    private static final long FLUSH_DELAY = 1000;
+
+    /**
+     * Sessions with deferred items, not ended yet
+     */
+    private static final Set<String> OPEN = new HashSet<>();
+
+    /**
+     * Records not written yet
+     */
+    private static final ByteArrayOutputStream BUFFER = new ByteArrayOutputStream();
+
+    private static final DataOutputStream RECORDS = new DataOutputStream(BUFFER);
+
+    /**
+     * Journal file, open while sessions are open
+     */
+    private static @Nullable FileChannel channel;
+
+    /**
+     * True while a delayed write is scheduled
+     */
+    private static boolean scheduled;
+
+    private SessionJournal() {}
+
+    /**
+     * @param session session ID
+     * @param fullName deferred item full name
+     * @param creator ID of the user who created the item
+     */
+    static synchronized void deferred(@NonNull String session, @NonNull String fullName, @NonNull String creator) {
+        OPEN.add(session);
+        append(DEFERRED, session, fullName, creator);
+    }
+
+    /**
+     * @param oldFullName former item full name
+     * @param newFullName new item full name
+     */
+    static synchronized void renamed(@NonNull String oldFullName, @NonNull String newFullName) {
+        if (!OPEN.isEmpty()) {
+            append(RENAMED, oldFullName, newFullName);
+        }
+    }
+
+    /**
+     * @param session ended session ID, its items are configured
+     */
+    static synchronized void ended(@NonNull String session) {
+        if (!OPEN.remove(session)) {
+            return;
+        }
+        if (OPEN.isEmpty()) {
+            delete();
+        } else {
+            append(ENDED, session);
+            flush();
+        }
+    }
+
+    /**
+     * Read the items of the sessions not ended, and start a new journal.
+     *
+     * @return ID of the creator of each pending item, by item full name, in creation order
+     */
+    static synchronized @NonNull Map<String, String> recover() {
+        // records of a previous instance, e.g. restarted in the same JVM, are already written
+        BUFFER.reset();
+        close();
+        final Map<String, String[]> pending = new LinkedHashMap<>();
+        final File file = getFile();
+        if (null == file) {
+            return new LinkedHashMap<>();
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            while (true) {
+                final byte type;
+                try {
+                    type = in.readByte();
+                } catch (EOFException e) {
+                    break;
+                }
+                switch (type) {
+                    case DEFERRED:
+                        final String session = in.readUTF();
+                        pending.putIfAbsent(in.readUTF(), new String[] {session, in.readUTF()});
+                        break;
+                    case RENAMED:
+                        rename(pending, in.readUTF(), in.readUTF());
+                        break;
+                    case ENDED:
+                        final String ended = in.readUTF();
+                        pending.values().removeIf(entry -> entry[0].equals(ended));
+                        break;
+                    default:
+                        throw new IOException("unknown record " + type);
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // no interrupted session
+        } catch (EOFException e) {
+            log.log(Level.WARNING, "ignoring truncated record of configuration session journal {0}", file);
+        } catch (IOException e) {
+            log.log(Level.WARNING, "ignoring unreadable configuration session journal " + file, e);
+        }
+        OPEN.clear();
+        delete();
+        final Map<String, String> result = new LinkedHashMap<>();
+        for (Map.Entry<String, String[]> entry : pending.entrySet()) {
+            result.put(entry.getKey(), entry.getValue()[1]);
+        }
+        return result;
+    }
+
+    private static void rename(Map<String, String[]> pending, String oldFullName, String newFullName) {
+        final String prefix = oldFullName + "/";
+        final Map<String, String[]> renamed = new LinkedHashMap<>();
+        for (Iterator<Map.Entry<String, String[]>> it = pending.entrySet().iterator(); it.hasNext(); ) {
+            final Map.Entry<String, String[]> entry = it.next();
+            if (entry.getKey().equals(oldFullName) || entry.getKey().startsWith(prefix)) {
+                renamed.put(newFullName + entry.getKey().substring(oldFullName.length()), entry.getValue());
+                it.remove();
+            }
+        }
+        pending.putAll(renamed);
+    }
+
+    private static void append(byte type, String... values) {
+        if (null == getFile()) {
+            return;
+        }
+        try {
+            RECORDS.writeByte(type);
+            for (String value : values) {
+                RECORDS.writeUTF(value);
+            }
+        } catch (IOException e) {
+            // not thrown by in-memory streams
+            throw new IllegalStateException(e);
+        }
+        if (BUFFER.size() >= FLUSH_SIZE) {
+            flush();
+        } else if (!scheduled) {
+            scheduled = true;
+            Timer.get().schedule(SessionJournal::flushScheduled, FLUSH_DELAY, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static synchronized void flushScheduled() {
+        scheduled = false;
+        flush();
+    }
+
+    /**
+     * Write buffered records, in one append.
+     */
+    static synchronized void flush() {
+        if (BUFFER.size() == 0) {
+            return;
+        }
+        final File file = getFile();
+        if (null == file) {
+            BUFFER.reset();
+            return;
+        }
+        try {
+            if (null == channel) {
+                final Path path = file.toPath();
+                Files.createDirectories(path.getParent());
+                channel = FileChannel.open(
+                        path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            }
+            final ByteBuffer records = ByteBuffer.wrap(BUFFER.toByteArray());
+            while (records.hasRemaining()) {
+                channel.write(records);
+            }
+        } catch (IOException e) {
+            log.log(Level.WARNING, "unable to write configuration session journal " + file, e);
+            close();
+        } finally {
+            BUFFER.reset();
+        }
+    }
+
+    private static void close() {
+        if (null != channel) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.log(Level.FINE, "unable to close configuration session journal", e);
+            }
+            channel = null;
+        }
+    }
+
+    private static void delete() {
+        BUFFER.reset();
+        close();
+        final File file = getFile();
+        if (null != file) {
+            try {
+                Files.deleteIfExists(file.toPath());
+            } catch (IOException e) {
+                log.log(Level.WARNING, "unable to delete configuration session journal " + file, e);
+            }
+        }
+    }
+
+    private static @Nullable File getFile() {
+        final Jenkins jenkins = Jenkins.getInstanceOrNull();
+        if (null == jenkins) {
+            return null;
+        }
+        return new File(new File(jenkins.getRootDir(), "createjobadvanced"), "sessions.journal");
+    }
+}
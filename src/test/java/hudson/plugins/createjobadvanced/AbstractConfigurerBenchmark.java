@@ -0,0 +1,100 @@
+package hudson.plugins.createjobadvanced;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import hudson.model.Item;
+import hudson.security.Permission;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.jenkinsci.plugins.matrixauth.PermissionEntry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of granting permissions to an item, depending on the size of its existing authorization matrix.
+ */
+@State(Scope.Thread)
+public class AbstractConfigurerBenchmark {
+
+    private static final Permission[] OWNER_PERMISSIONS = {
+        Item.CONFIGURE, Item.BUILD, Item.READ, Item.DELETE, Item.WORKSPACE
+    };
+
+    @Param({"0", "10", "100"})
+    public int existingEntries;
+
+    private StubConfigurer configurer;
+    private Item item;
+    private Map<Permission, Set<PermissionEntry>> permissions;
+
+    @Setup
+    public void setUp() {
+        configurer = new StubConfigurer();
+        item = mock(Item.class);
+        when(item.getName()).thenReturn("com.ABC.project");
+
+        permissions = new HashMap<>();
+        PermissionPlan template = new PermissionPlan();
+        for (int i = 0; i < existingEntries; i++) {
+            template.grant(PermissionEntry.user("user" + i), Item.READ, Item.BUILD);
+        }
+        for (Map.Entry<Permission, Set<PermissionEntry>> entry : template.getGrants().entrySet()) {
+            permissions.put(entry.getKey(), new HashSet<>(entry.getValue()));
+        }
+    }
+
+    /**
+     * Item whose matrix holds the existing entries only, restored before each invocation.
+     */
+    @State(Scope.Thread)
+    public static class Ungranted {
+
+        @Setup(Level.Invocation)
+        public void reset(AbstractConfigurerBenchmark benchmark) throws Exception {
+            benchmark.configurer.removeProperty(
+                    benchmark.item, benchmark.configurer.getAuthorizationMatrixProperty(benchmark.item));
+            benchmark.configurer.addAuthorizationMatrixProperty(
+                    benchmark.item, benchmark.configurer.setupAuthorizationMatrixProperty(benchmark.permissions));
+        }
+    }
+
+    /**
+     * Item already granted the owner permissions.
+     */
+    @State(Scope.Thread)
+    public static class Granted {
+
+        @Setup(Level.Trial)
+        public void grant(AbstractConfigurerBenchmark benchmark) throws Exception {
+            benchmark.configurer.addAuthorizationMatrixProperty(
+                    benchmark.item, benchmark.configurer.setupAuthorizationMatrixProperty(benchmark.permissions));
+            benchmark.configurer.securityGrantPermissions(
+                    benchmark.item, PermissionEntry.user("owner"), OWNER_PERMISSIONS);
+        }
+    }
+
+    @Benchmark
+    public int securityGrantPermissions(Ungranted ungranted) {
+        configurer.securityGrantPermissions(item, PermissionEntry.user("owner"), OWNER_PERMISSIONS);
+        return configurer.getSaves();
+    }
+
+    @Benchmark
+    public int alreadyGranted(Granted granted) {
+        // no-op path, nothing is missing and the item is not saved
+        configurer.securityGrantPermissions(item, PermissionEntry.user("owner"), OWNER_PERMISSIONS);
+        return configurer.getSaves();
+    }
+
+    @Benchmark
+    public StubConfigurer.StubProperty setupAuthorizationMatrixProperty() throws Exception {
+        return configurer.setupAuthorizationMatrixProperty(permissions);
+    }
+}
@@ -1,7 +1,15 @@
 package hudson.plugins.createjobadvanced;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
 
+import hudson.model.Item;
+import org.jenkinsci.plugins.matrixauth.PermissionEntry;
 import org.junit.jupiter.api.Test;
 
 class AbstractConfigurerTest {
@@ -11,4 +19,57 @@ class AbstractConfigurerTest {
         MavenConfigurer configurer = new MavenConfigurer();
         assertNull(configurer.getPlugin());
     }
+
+    @Test
+    void deltaPermissionUpdateTest() {
+        // Existing properties are replaced by a completed copy, and not saved when nothing is missing.
+        StubConfigurer configurer = new StubConfigurer();
+        Item item = mock(Item.class);
+        PermissionPlan plan = new PermissionPlan().grant(PermissionEntry.user("alice"), Item.READ, Item.BUILD);
+        assertTrue(configurer.applyPermissionPlan(item, plan));
+        assertEquals(1, configurer.getSaves());
+        StubConfigurer.StubProperty property = configurer.getAuthorizationMatrixProperty(item);
+
+        long skips = CreationMetrics.get().getSkips().get("PERMISSION_APPLY");
+        assertFalse(configurer.applyPermissionPlan(item, plan));
+        assertEquals(1, configurer.getSaves());
+        assertEquals(skips + 1, CreationMetrics.get().getSkips().get("PERMISSION_APPLY"));
+
+        assertTrue(configurer.applyPermissionPlan(
+                item, new PermissionPlan().grant(PermissionEntry.user("bob"), Item.READ)));
+        assertEquals(2, configurer.getSaves());
+        StubConfigurer.StubProperty updated = configurer.getAuthorizationMatrixProperty(item);
+        assertNotSame(property, updated);
+        assertFalse(property.grants.get(Item.READ).contains(PermissionEntry.user("bob")));
+        assertTrue(updated.grants.get(Item.READ).contains(PermissionEntry.user("bob")));
+        assertTrue(updated.grants.get(Item.BUILD).contains(PermissionEntry.user("alice")));
+    }
+
+    @Test
+    void createdItemUpdateTest() {
+        // The property of an item just created, not read by other threads yet, is completed in place.
+        StubConfigurer configurer = new StubConfigurer();
+        Item item = mock(Item.class);
+        configurer.applyPermissionPlan(item, new PermissionPlan().grant(PermissionEntry.user("alice"), Item.READ));
+        StubConfigurer.StubProperty property = configurer.getAuthorizationMatrixProperty(item);
+
+        AbstractConfigurer.configureInSession(item, true, () -> assertTrue(configurer.applyPermissionPlan(
+                item, new PermissionPlan().grant(PermissionEntry.user("bob"), Item.READ))));
+        assertEquals(2, configurer.getSaves());
+        assertSame(property, configurer.getAuthorizationMatrixProperty(item));
+        assertTrue(property.grants.get(Item.READ).contains(PermissionEntry.user("bob")));
+    }
+
+    @Test
+    void internedPermissionEntriesTest() throws Exception {
+        // Matrices rebuilt from distinct but equal entries share the same instances.
+        StubConfigurer configurer = new StubConfigurer();
+        StubConfigurer.StubProperty first = configurer.setupAuthorizationMatrixProperty(
+                new PermissionPlan().grant(PermissionEntry.group("team"), Item.READ).getGrants());
+        StubConfigurer.StubProperty second = configurer.setupAuthorizationMatrixProperty(
+                new PermissionPlan().grant(PermissionEntry.group("team"), Item.READ).getGrants());
+        PermissionEntry entry = first.grants.get(Item.READ).iterator().next();
+        assertSame(entry, second.grants.get(Item.READ).iterator().next());
+        assertSame(entry, PermissionEntries.group("team"));
+    }
 }
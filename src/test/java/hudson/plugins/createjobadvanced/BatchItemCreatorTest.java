@@ -0,0 +1,184 @@
+package hudson.plugins.createjobadvanced;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.cloudbees.hudson.plugins.folder.Folder;
+import hudson.model.FreeStyleProject;
+import hudson.model.Item;
+import hudson.model.User;
+import hudson.model.listeners.ItemListener;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import hudson.security.AuthorizationMatrixProperty;
+import hudson.security.ProjectMatrixAuthorizationStrategy;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import jenkins.model.Jenkins;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+import org.htmlunit.HttpMethod;
+import org.htmlunit.WebRequest;
+import org.htmlunit.WebResponse;
+import org.jenkinsci.plugins.matrixauth.PermissionEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.TestExtension;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+@WithJenkins
+class BatchItemCreatorTest {
+
+    private JenkinsRule r;
+
+    @BeforeEach
+    void setUp(JenkinsRule rule) throws Exception {
+        r = rule;
+        PluginTestSupport.secure(r, "alice");
+        JSONObject formData = new JSONObject();
+        formData.put("security", true);
+        formData.put("jobspacesinname", true);
+        PluginTestSupport.configure(r, formData);
+    }
+
+    @Test
+    void batchCreationTest() throws Exception {
+        // Items are created with normalized names and owner rights, failures are reported per item.
+        PluginTestSupport.createAs(r, "alice", Folder.class, "tenant");
+        JSONArray definitions = new JSONArray();
+        definitions.add(definition("Batch Job", FreeStyleProject.class.getName(), "tenant"));
+        definitions.add(definition("unknown", "no.such.Type", ""));
+
+        JSONObject result = create(definitions);
+        assertEquals(1, result.getInt("created"));
+        assertEquals(1, result.getInt("failed"));
+        assertEquals("tenant/Batch-Job", result.getJSONArray("items").getJSONObject(0).getString("fullName"));
+        FreeStyleProject project = r.jenkins.getItemByFullName("tenant/Batch-Job", FreeStyleProject.class);
+        assertNotNull(project);
+        assertTrue(project.getConfigFile().exists());
+        AuthorizationMatrixProperty property = project.getProperty(AuthorizationMatrixProperty.class);
+        assertNotNull(property);
+        assertTrue(property.hasExplicitPermission(PermissionEntry.user("alice"), Item.CONFIGURE));
+    }
+
+    @Test
+    void failingConfigurerTest() throws Exception {
+        // An unexpected failure is reported for its item only, which is deleted, the next items are still created.
+        JSONArray definitions = new JSONArray();
+        definitions.add(definition("first", FreeStyleProject.class.getName(), ""));
+        definitions.add(definition("broken", FreeStyleProject.class.getName(), ""));
+        definitions.add(definition("last", FreeStyleProject.class.getName(), ""));
+
+        JSONObject result = create(definitions);
+        assertEquals(2, result.getInt("created"));
+        assertEquals(1, result.getInt("failed"));
+        JSONArray items = result.getJSONArray("items");
+        assertEquals("created", items.getJSONObject(0).getString("status"));
+        JSONObject broken = items.getJSONObject(1);
+        assertEquals("failed", broken.getString("status"));
+        assertEquals("broken configurer", broken.getString("message"));
+        assertFalse(broken.has("fullName"));
+        assertNull(r.jenkins.getItem("broken"));
+        assertEquals(List.of("first", "last"), r.jenkins.getExtensionList(CreationCounter.class).get(0).created);
+        assertEquals("created", items.getJSONObject(2).getString("status"));
+        assertNotNull(r.jenkins.getItem("last"));
+    }
+
+    @Test
+    void createItemsEndpointTest() throws Exception {
+        // Items are created by POST requests of users allowed to read Jenkins, creation rights are checked per item.
+        ((ProjectMatrixAuthorizationStrategy) r.jenkins.getAuthorizationStrategy())
+                .add(Jenkins.READ, PermissionEntry.user("bob"));
+        JSONArray definitions = new JSONArray();
+        definitions.add(definition("web job", FreeStyleProject.class.getName(), ""));
+        definitions.add(definition("orphan", FreeStyleProject.class.getName(), "missing"));
+        JSONObject body = new JSONObject();
+        body.put("items", definitions);
+
+        try (JenkinsRule.WebClient wc = r.createWebClient()) {
+            wc.setThrowExceptionOnFailingStatusCode(false);
+            assertEquals(403, post(wc, body).getStatusCode());
+
+            wc.login("alice");
+            assertEquals(405, wc.goTo("createjobadvanced/createItems", null).getWebResponse().getStatusCode());
+            WebResponse response = post(wc, body);
+            assertEquals(200, response.getStatusCode());
+            JSONObject result = JSONObject.fromObject(response.getContentAsString());
+            assertEquals(1, result.getInt("created"));
+            assertEquals(1, result.getInt("failed"));
+            JSONArray items = result.getJSONArray("items");
+            assertEquals("web job", items.getJSONObject(0).getString("name"));
+            assertEquals("web-job", items.getJSONObject(0).getString("fullName"));
+            assertEquals("created", items.getJSONObject(0).getString("status"));
+            assertEquals("failed", items.getJSONObject(1).getString("status"));
+            assertEquals("unknown folder missing", items.getJSONObject(1).getString("message"));
+        }
+        FreeStyleProject project = r.jenkins.getItemByFullName("web-job", FreeStyleProject.class);
+        assertNotNull(project);
+        AuthorizationMatrixProperty property = project.getProperty(AuthorizationMatrixProperty.class);
+        assertNotNull(property);
+        assertTrue(property.hasExplicitPermission(PermissionEntry.user("alice"), Item.CONFIGURE));
+
+        try (JenkinsRule.WebClient wc = r.createWebClient().login("bob")) {
+            // allowed to read, not to create
+            definitions.clear();
+            definitions.add(definition("denied", FreeStyleProject.class.getName(), ""));
+            body.put("items", definitions);
+            WebResponse response = post(wc, body);
+            assertEquals(200, response.getStatusCode());
+            JSONObject result = JSONObject.fromObject(response.getContentAsString());
+            assertEquals(0, result.getInt("created"));
+            assertEquals(1, result.getInt("failed"));
+        }
+        assertNull(r.jenkins.getItem("denied"));
+    }
+
+    private WebResponse post(JenkinsRule.WebClient wc, JSONObject body) throws Exception {
+        WebRequest request = new WebRequest(new URL(r.getURL(), "createjobadvanced/createItems"), HttpMethod.POST);
+        request.setAdditionalHeader("Content-Type", "application/json");
+        request.setRequestBody(body.toString());
+        wc.addCrumb(request);
+        return wc.getPage(request).getWebResponse();
+    }
+
+    private static JSONObject definition(String name, String type, String folder) {
+        JSONObject result = new JSONObject();
+        result.put("name", name);
+        result.put("type", type);
+        result.put("folder", folder);
+        return result;
+    }
+
+    private static JSONObject create(JSONArray definitions) {
+        try (ACLContext ignored = ACL.as2(User.getById("alice", true).impersonate2())) {
+            return new BatchItemCreator().create(definitions);
+        }
+    }
+
+    @TestExtension("failingConfigurerTest")
+    public static final class CreationCounter extends ItemListener {
+
+        private final List<String> created = new ArrayList<>();
+
+        @Override
+        public void onCreated(Item item) {
+            created.add(item.getFullName());
+        }
+    }
+
+    @TestExtension("failingConfigurerTest")
+    public static final class BrokenConfigurer extends JobConfigurer {
+
+        @Override
+        protected void doCreate(Item item) {
+            if ("broken".equals(item.getName())) {
+                throw new IllegalStateException("broken configurer");
+            }
+        }
+    }
+}
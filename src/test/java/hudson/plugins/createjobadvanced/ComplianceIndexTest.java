@@ -0,0 +1,76 @@
+package hudson.plugins.createjobadvanced;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import hudson.model.FreeStyleProject;
+import hudson.security.AuthorizationMatrixProperty;
+import hudson.security.ProjectMatrixAuthorizationStrategy;
+import java.util.List;
+import jenkins.model.Jenkins;
+import net.sf.json.JSONObject;
+import org.jenkinsci.plugins.matrixauth.PermissionEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+@WithJenkins
+class ComplianceIndexTest {
+
+    private JenkinsRule r;
+
+    @BeforeEach
+    void setUp(JenkinsRule rule) throws Exception {
+        r = rule;
+        PluginTestSupport.secure(r, "alice");
+        JSONObject formData = new JSONObject();
+        formData.put("security", true);
+        PluginTestSupport.configure(r, formData);
+    }
+
+    @Test
+    void changedItemsTest() throws Exception {
+        // Only items whose configuration changed since the previous scan are checked again.
+        FreeStyleProject project = PluginTestSupport.createAs(r, "alice", FreeStyleProject.class, "scanned");
+        ComplianceIndex index = ComplianceIndex.scan();
+        assertTrue(index.getNonCompliantItems().isEmpty());
+
+        index = ComplianceIndex.scan();
+        assertEquals(0, index.getExamined());
+        assertSame(index, ComplianceIndex.get());
+
+        project.removeProperty(AuthorizationMatrixProperty.class);
+        // modification times may not change within the same millisecond
+        assertTrue(project.getConfigFile().getFile().setLastModified(System.currentTimeMillis() + 1000));
+        index = ComplianceIndex.scan();
+        assertEquals(1, index.getExamined());
+        assertEquals(List.of("scanned"), index.getNonCompliantItems());
+    }
+
+    @Test
+    void reportAndReapplyTest() throws Exception {
+        // Drifted items are reported, and re-applied alone when only non-compliant items are requested.
+        FreeStyleProject drifted = PluginTestSupport.createAs(r, "alice", FreeStyleProject.class, "drifted");
+        PluginTestSupport.createAs(r, "alice", FreeStyleProject.class, "compliant");
+        drifted.removeProperty(AuthorizationMatrixProperty.class);
+        ComplianceIndex.scan();
+
+        ((ProjectMatrixAuthorizationStrategy) r.jenkins.getAuthorizationStrategy())
+                .add(Jenkins.ADMINISTER, PermissionEntry.user("admin"));
+        JenkinsRule.WebClient wc = r.createWebClient().login("admin");
+        JSONObject report = wc.getJSON("createjobadvanced/compliance").getJSONObject();
+        assertTrue(report.getBoolean("scanned"));
+        assertEquals(List.of("drifted"), report.getJSONArray("nonCompliant"));
+
+        PolicyReapplier.Result result = new PolicyReapplier().withNonCompliantOnly(true).run();
+        assertEquals(1, result.getTotal());
+        assertEquals(1, result.getUpdated());
+        AuthorizationMatrixProperty property = drifted.getProperty(AuthorizationMatrixProperty.class);
+        assertNotNull(property);
+        assertFalse(property.getGrantedPermissionEntries().isEmpty());
+    }
+}
@@ -0,0 +1,67 @@
+package hudson.plugins.createjobadvanced;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import hudson.model.Item;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+class ConfigurationQueueTest {
+
+    @Test
+    void fullStripeTest() throws Exception {
+        // With its stripe full, an item is configured on the submitting thread, unless it has pending tasks.
+        ConfigurationQueue queue = new ConfigurationQueue(1, 1);
+        Item running = item("running");
+        Item queued = item("queued");
+        Item other = item("other");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> applied = new CopyOnWriteArrayList<>();
+
+        // occupy the single thread, then the single queue slot
+        assertTrue(queue.submit(running, () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            applied.add("running");
+        }));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        assertTrue(queue.submit(queued, () -> applied.add("queued 1")));
+
+        // no earlier task: run inline, without waiting for the stripe
+        AtomicReference<Thread> thread = new AtomicReference<>();
+        assertFalse(queue.submit(other, () -> thread.set(Thread.currentThread())));
+        assertSame(Thread.currentThread(), thread.get());
+        assertFalse(queue.isPending(other));
+
+        // earlier task still queued: kept behind it, without blocking the caller
+        assertTrue(queue.submit(queued, () -> applied.add("queued 2")));
+        assertTrue(queue.submit(queued, () -> applied.add("queued 3")));
+        assertTrue(queue.isPending(queued));
+
+        release.countDown();
+        queue.await(queued);
+        assertEquals(List.of("running", "queued 1", "queued 2", "queued 3"), applied);
+        assertFalse(queue.isPending(queued));
+        assertTrue(queue.getPendingItems().isEmpty());
+    }
+
+    private static Item item(String fullName) {
+        Item item = mock(Item.class);
+        when(item.getFullName()).thenReturn(fullName);
+        return item;
+    }
+}
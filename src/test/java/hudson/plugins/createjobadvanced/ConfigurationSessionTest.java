@@ -0,0 +1,140 @@
+package hudson.plugins.createjobadvanced;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import hudson.model.FreeStyleProject;
+import hudson.model.Item;
+import hudson.security.AuthorizationMatrixProperty;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.concurrent.atomic.AtomicReference;
+import net.sf.json.JSONObject;
+import org.jenkinsci.plugins.matrixauth.PermissionEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.JenkinsSessionExtension;
+
+class ConfigurationSessionTest {
+
+    @RegisterExtension
+    private final JenkinsSessionExtension sessions = new JenkinsSessionExtension();
+
+    @Test
+    void deferredConfigurationTest() throws Throwable {
+        // Items created during a session are configured, as their creator, when the session is closed.
+        sessions.then(r -> {
+            secure(r);
+            FreeStyleProject project;
+            try (ConfigurationSession session = ConfigurationSession.open()) {
+                project = PluginTestSupport.createAs(r, "alice", FreeStyleProject.class, "session");
+                assertEquals(1, session.size());
+                assertNull(project.getProperty(AuthorizationMatrixProperty.class));
+            }
+            assertOwner(project, "alice");
+        });
+    }
+
+    @Test
+    void renamedDuringSessionTest() throws Throwable {
+        // Items renamed before the end of their session are still configured, under their new name.
+        sessions.then(r -> {
+            secure(r);
+            FreeStyleProject project;
+            try (ConfigurationSession session = ConfigurationSession.open()) {
+                project = PluginTestSupport.createAs(r, "alice", FreeStyleProject.class, "before");
+                project.renameTo("after");
+                assertEquals(1, session.size());
+            }
+            assertEquals("after", project.getFullName());
+            assertOwner(project, "alice");
+        });
+    }
+
+    @Test
+    void interruptedSessionTest() throws Throwable {
+        // Items of a session never closed, like one interrupted by a restart, are configured on next startup.
+        sessions.then(r -> {
+            secure(r);
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            // the session of a thread ending without closing it
+            Thread creator = new Thread(() -> {
+                try {
+                    ConfigurationSession.open();
+                    PluginTestSupport.createAs(r, "alice", FreeStyleProject.class, "interrupted");
+                } catch (Throwable t) {
+                    failure.set(t);
+                }
+            });
+            creator.start();
+            creator.join();
+            assertNull(failure.get());
+            FreeStyleProject project = r.jenkins.getItemByFullName("interrupted", FreeStyleProject.class);
+            assertNotNull(project);
+            assertNull(project.getProperty(AuthorizationMatrixProperty.class));
+        });
+        sessions.then(r -> {
+            FreeStyleProject project = r.jenkins.getItemByFullName("interrupted", FreeStyleProject.class);
+            assertNotNull(project);
+            assertOwner(project, "alice");
+        });
+    }
+
+    @Test
+    void truncatedJournalTest() throws Throwable {
+        // A journal whose last record was partly written, e.g. on a crash, is still replayed up to that record.
+        sessions.then(r -> {
+            secure(r);
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            Thread creator = new Thread(() -> {
+                try {
+                    ConfigurationSession.open();
+                    PluginTestSupport.createAs(r, "alice", FreeStyleProject.class, "partial");
+                } catch (Throwable t) {
+                    failure.set(t);
+                }
+            });
+            creator.start();
+            creator.join();
+            assertNull(failure.get());
+            SessionJournal.flush();
+            File journal = journal(r);
+            assertTrue(journal.isFile());
+            // a deferred item record cut in the middle of its item name
+            try (DataOutputStream out = new DataOutputStream(new FileOutputStream(journal, true))) {
+                out.writeByte('D');
+                out.writeUTF("session");
+                out.writeShort(42);
+                out.writeBytes("trunc");
+            }
+        });
+        sessions.then(r -> {
+            FreeStyleProject project = r.jenkins.getItemByFullName("partial", FreeStyleProject.class);
+            assertNotNull(project);
+            assertOwner(project, "alice");
+            assertFalse(journal(r).exists());
+        });
+    }
+
+    private static File journal(JenkinsRule r) {
+        return new File(new File(r.jenkins.getRootDir(), "createjobadvanced"), "sessions.journal");
+    }
+
+    private static void secure(JenkinsRule r) throws Exception {
+        PluginTestSupport.secure(r, "alice");
+        JSONObject formData = new JSONObject();
+        formData.put("security", true);
+        PluginTestSupport.configure(r, formData);
+    }
+
+    private static void assertOwner(FreeStyleProject project, String owner) {
+        AuthorizationMatrixProperty property = project.getProperty(AuthorizationMatrixProperty.class);
+        assertNotNull(property);
+        assertTrue(property.hasExplicitPermission(PermissionEntry.user(owner), Item.CONFIGURE));
+    }
+}
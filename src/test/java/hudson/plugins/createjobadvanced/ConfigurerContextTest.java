@@ -0,0 +1,70 @@
+package hudson.plugins.createjobadvanced;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import hudson.model.Item;
+import hudson.security.AuthorizationMatrixProperty;
+import hudson.security.Permission;
+import hudson.security.PermissionScope;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+@WithJenkins
+class ConfigurerContextTest {
+
+    private JenkinsRule r;
+
+    @BeforeEach
+    void setUp(JenkinsRule rule) {
+        r = rule;
+    }
+
+    @Test
+    void sharedContextTest() {
+        // Plugin and descriptors are resolved once, and shared until the context is dropped.
+        ConfigurerContext context = ConfigurerContext.get();
+        assertSame(context, ConfigurerContext.get());
+        assertSame(r.jenkins.getPlugin(CreateJobAdvancedPlugin.class), context.getPlugin());
+        assertSame(
+                r.jenkins.getDescriptor(AuthorizationMatrixProperty.class),
+                context.getDescriptor(
+                        AuthorizationMatrixProperty.class, AuthorizationMatrixProperty.DescriptorImpl.class));
+
+        ConfigurerContext.invalidate();
+        assertNotSame(context, ConfigurerContext.get());
+    }
+
+    @Test
+    void permissionVisibilityTest() {
+        // Visibility of all permissions is resolved on the first request only.
+        ConfigurerContext context = ConfigurerContext.get();
+        AtomicInteger resolutions = new AtomicInteger();
+        assertTrue(context.showPermission(Item.class, Item.READ, p -> resolutions.incrementAndGet() > 0));
+        assertEquals(Permission.getAll().size(), resolutions.get());
+        assertTrue(context.showPermission(Item.class, Item.READ, p -> false));
+        assertTrue(context.showPermission(Item.class, Item.CONFIGURE, p -> false));
+        assertEquals(Permission.getAll().size(), resolutions.get());
+    }
+
+    @Test
+    void registeredPermissionTest() {
+        // A permission registered later, e.g. by a dynamically loaded plugin, rebuilds the context.
+        ConfigurerContext context = ConfigurerContext.get();
+        assertTrue(context.showPermission(Item.class, Item.READ, p -> true));
+        Permission registered = new Permission(Item.PERMISSIONS, "Registered", null, null, PermissionScope.ITEM);
+        // unknown to the old context, checked directly
+        assertFalse(context.showPermission(Item.class, registered, p -> false));
+
+        ConfigurerContext rebuilt = ConfigurerContext.get();
+        assertNotSame(context, rebuilt);
+        assertTrue(rebuilt.showPermission(Item.class, registered, p -> p == registered));
+        assertSame(rebuilt, ConfigurerContext.get());
+    }
+}
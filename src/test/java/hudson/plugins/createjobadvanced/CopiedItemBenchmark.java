@@ -0,0 +1,95 @@
+package hudson.plugins.createjobadvanced;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import hudson.model.Item;
+import hudson.security.Permission;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.jenkinsci.plugins.matrixauth.PermissionEntry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of configuring 1,000 copies of a template carrying 500 authorization matrix entries, when plugin grants are
+ * merged into the copied matrix, and when the matrix is rebuilt from the template grants.
+ */
+@State(Scope.Thread)
+public class CopiedItemBenchmark {
+
+    private static final int TEMPLATE_ENTRIES = 500;
+
+    private static final int COPIES = 1000;
+
+    private static final Permission[] TEMPLATE_PERMISSIONS = {Item.READ, Item.BUILD};
+
+    private StubConfigurer configurer;
+    private StubConfigurer.StubProperty template;
+    private PermissionPlan plan;
+    private Item[] copies;
+
+    @Setup
+    public void setUp() {
+        configurer = new StubConfigurer();
+        template = new StubConfigurer.StubProperty();
+        for (int i = 0; i < TEMPLATE_ENTRIES; i++) {
+            for (Permission permission : TEMPLATE_PERMISSIONS) {
+                template.grants
+                        .computeIfAbsent(permission, p -> new HashSet<>())
+                        .add(PermissionEntry.user("user" + i));
+            }
+        }
+        plan = new PermissionPlan()
+                .grant(PermissionEntries.user("owner"), Item.CONFIGURE, Item.BUILD, Item.READ, Item.DELETE)
+                .grant(PermissionEntries.user("anonymous"), Item.READ)
+                .grant(PermissionEntries.group("copies"), Item.READ, Item.BUILD);
+        copies = new Item[COPIES];
+        for (int i = 0; i < COPIES; i++) {
+            copies[i] = mock(Item.class);
+            when(copies[i].getName()).thenReturn("copy" + i);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COPIES)
+    public int mergeIntoCopy() {
+        for (Item copy : copies) {
+            configurer.addAuthorizationMatrixProperty(copy, copyOfTemplate());
+            // copies are completed in place, before other threads can read them
+            AbstractConfigurer.configureInSession(copy, true, () -> configurer.applyPermissionPlan(copy, plan));
+        }
+        return configurer.getSaves();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COPIES)
+    public int rebuildCopy() throws Exception {
+        for (Item copy : copies) {
+            Map<Permission, Set<PermissionEntry>> permissions =
+                    configurer.getGrantedPermissionEntries(copyOfTemplate());
+            for (Map.Entry<Permission, Set<PermissionEntry>> grant : plan.getGrants().entrySet()) {
+                for (PermissionEntry permEntry : grant.getValue()) {
+                    configurer.configurePermission(permissions, grant.getKey(), permEntry);
+                }
+            }
+            configurer.addAuthorizationMatrixProperty(copy, configurer.setupAuthorizationMatrixProperty(permissions));
+        }
+        return configurer.getSaves();
+    }
+
+    /**
+     * @return matrix of a copy, as loaded from the copied config.xml
+     */
+    private StubConfigurer.StubProperty copyOfTemplate() {
+        StubConfigurer.StubProperty result = new StubConfigurer.StubProperty();
+        for (Map.Entry<Permission, Set<PermissionEntry>> entry : template.grants.entrySet()) {
+            result.grants.put(entry.getKey(), new HashSet<>(entry.getValue()));
+        }
+        return result;
+    }
+}
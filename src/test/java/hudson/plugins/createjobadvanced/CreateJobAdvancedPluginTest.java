@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -12,15 +13,19 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import com.cloudbees.hudson.plugins.folder.Folder;
+import hudson.XmlFile;
 import hudson.maven.MavenModuleSet;
 import hudson.maven.reporters.MavenMailer;
 import hudson.model.AbstractItem;
 import hudson.model.FreeStyleProject;
 import hudson.model.Item;
+import hudson.model.Saveable;
 import hudson.model.TopLevelItem;
 import hudson.model.User;
+import hudson.model.listeners.SaveableListener;
 import hudson.security.ACL;
 import hudson.security.ACLContext;
+import hudson.security.AuthorizationMatrixProperty;
 import hudson.security.HudsonPrivateSecurityRealm;
 import hudson.security.Permission;
 import hudson.security.ProjectMatrixAuthorizationStrategy;
@@ -31,6 +36,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import jenkins.branch.OrganizationFolder;
 import jenkins.model.Jenkins;
 import net.sf.json.JSONArray;
@@ -41,6 +47,7 @@ import org.jenkinsci.plugins.workflow.multibranch.WorkflowMultiBranchProject;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.TestExtension;
 import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
 import org.jvnet.hudson.test.recipes.LocalData;
 import org.kohsuke.stapler.StaplerRequest2;
@@ -225,6 +232,61 @@ class CreateJobAdvancedPluginTest {
         assertEquals(project.getName().replaceAll(" ", "-"), project.getName());
     }
 
+    @Test
+    @LocalData("createJobAdvancedFullConfig")
+    void permissionsSavedOnceTest() throws Exception {
+        // Owner, public and dynamic grants must be persisted with a single save of the item.
+        initUser("alice");
+        FreeStyleProject project = createProject(FreeStyleProject.class, "SaveCount", "alice");
+        project.removeProperty(AuthorizationMatrixProperty.class);
+        assertNull(project.getProperty(AuthorizationMatrixProperty.class));
+
+        SaveCounter counter = SaveableListener.all().get(SaveCounter.class);
+        assertNotNull(counter);
+        counter.saves.set(0);
+        try (ACLContext ignored = ACL.as(User.get("alice", false, Collections.emptyMap()))) {
+            new JobConfigurer().doCreate(project);
+        }
+        assertEquals(1, counter.saves.get(), "Item should be saved once per creation");
+        testOwnerRights(project, "alice");
+    }
+
+    @Test
+    @LocalData("createJobAdvancedFullConfig")
+    void asyncConfigurationTest() throws Exception {
+        // Created items are renamed inline and configured by the background queue.
+        initUser("alice");
+        CreateJobAdvancedPlugin cja = r.jenkins.getPlugin(CreateJobAdvancedPlugin.class);
+        assertNotNull(cja);
+        JSONObject formData = new JSONObject();
+        formData.put("security", true);
+        formData.put("jobspacesinname", true);
+        formData.put("asyncConfiguration", true);
+        cja.configure(mock(StaplerRequest2.class), formData);
+        assertTrue(cja.isAsyncConfiguration());
+
+        FreeStyleProject project = createProject(FreeStyleProject.class, "Async Project", "alice");
+        assertEquals("Async-Project", project.getName());
+        ConfigurationQueue queue = ConfigurationQueue.get();
+        assertNotNull(queue);
+        queue.await(project);
+        assertFalse(queue.isPending(project));
+        testOwnerRights(project, "alice");
+    }
+
+    @TestExtension
+    public static class SaveCounter extends SaveableListener {
+
+        private final AtomicInteger saves = new AtomicInteger();
+
+        @Override
+        public void onChange(Saveable o, XmlFile file) {
+            if (o instanceof Item) {
+                saves.incrementAndGet();
+            }
+        }
+    }
+
     private <T extends TopLevelItem> T createProject(Class<T> jobClass, String name, String creator) throws Exception {
         // This method creates a project of the specified type with the given name.
         T project;
@@ -417,6 +479,14 @@ class CreateJobAdvancedPluginTest {
         assertTrue(implies.contains("hudson.model.Item.Read"));
     }
 
+    @Test
+    void testPermissionCatalog() {
+        PermissionCatalog catalog = PermissionCatalog.get();
+        assertSame(catalog, PermissionCatalog.get());
+        assertSame(catalog.getPermissions(), CreateJobAdvancedPlugin.getAllPossiblePermissions());
+        assertTrue(catalog.getImpliedByList(hudson.model.Item.DISCOVER).startsWith("hudson.model.Item.Read"));
+    }
+
     @Test
     void testImpliedByList2() {
         String implies = CreateJobAdvancedPlugin.impliedByList(null);
@@ -0,0 +1,37 @@
+package hudson.plugins.createjobadvanced;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import net.sf.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+class CreationMetricsTest {
+
+    @Test
+    void testHistogramPercentiles() {
+        CreationMetrics.Histogram histogram = new CreationMetrics.Histogram();
+        assertEquals(0, histogram.getPercentile(0.5));
+        for (int i = 0; i < 99; i++) {
+            histogram.record(1_000);
+        }
+        histogram.record(1_000_000);
+        assertEquals(100, histogram.getCount());
+        assertEquals(1_000_000, histogram.getMax());
+        // 1000ns lies in the [512, 1023] bucket
+        assertEquals(1_023, histogram.getPercentile(0.50));
+        assertEquals(1_023, histogram.getPercentile(0.99));
+        assertEquals(1_000_000, histogram.getPercentile(1.0));
+    }
+
+    @Test
+    void testConfigurationIsRecorded() {
+        long creations = CreationMetrics.get().getCreations();
+        long start = CreationMetrics.beginConfiguration();
+        CreationMetrics.record(CreationMetrics.Phase.RENAME, start);
+        CreationMetrics.endConfiguration(start);
+        assertEquals(creations + 1, CreationMetrics.get().getCreations());
+        JSONObject json = CreationMetrics.get().toJSON();
+        assertTrue(json.getJSONObject("phases").getJSONObject("RENAME").getLong("count") > 0);
+    }
+}
@@ -0,0 +1,68 @@
+package hudson.plugins.createjobadvanced;
+
+import hudson.model.Item;
+import java.util.ArrayList;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of dynamic group permissions for one created item, depending on the number of configured rules.
+ */
+@State(Scope.Thread)
+public class DynamicPermissionRulesBenchmark {
+
+    private static final String EXTRACT_PATTERN = "com\\.([A-Z]{3})\\.(.*)";
+
+    @Param({"1", "10", "50"})
+    public int ruleCount;
+
+    private List<DynamicPermissionConfig> configs;
+    private DynamicPermissionRules rules;
+    private DynamicPermissionRules prefixedRules;
+
+    @Setup
+    public void setUp() {
+        configs = new ArrayList<>();
+        for (int i = 0; i < ruleCount; i++) {
+            DynamicPermissionConfig config = new DynamicPermissionConfig("{1}-team" + i, null);
+            config.addPermissionId(Item.READ.getId());
+            config.addPermissionId(Item.BUILD.getId());
+            config.addPermissionId(Item.CONFIGURE.getId());
+            configs.add(config);
+        }
+        rules = DynamicPermissionRules.compile(EXTRACT_PATTERN, configs);
+
+        // one pattern per business unit prefix
+        List<DynamicPermissionConfig> prefixedConfigs = new ArrayList<>();
+        for (int i = 0; i < ruleCount; i++) {
+            DynamicPermissionConfig config = new DynamicPermissionConfig("{1}-bu" + i, null);
+            config.setExtractPattern("^bu" + i + "\\.(.*)");
+            config.addPermissionId(Item.READ.getId());
+            prefixedConfigs.add(config);
+        }
+        prefixedRules = DynamicPermissionRules.compile(null, prefixedConfigs);
+    }
+
+    @Benchmark
+    public PermissionPlan securityGrantDynamicPermissions() {
+        PermissionPlan plan = new PermissionPlan();
+        rules.plan(plan, "com.ABC.project");
+        return plan;
+    }
+
+    @Benchmark
+    public PermissionPlan securityGrantPrefixedPermissions() {
+        PermissionPlan plan = new PermissionPlan();
+        prefixedRules.plan(plan, "bu0.project");
+        return plan;
+    }
+
+    @Benchmark
+    public DynamicPermissionRules compileRules() {
+        return DynamicPermissionRules.compile(EXTRACT_PATTERN, configs);
+    }
+}
@@ -0,0 +1,86 @@
+package hudson.plugins.createjobadvanced;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import hudson.model.Item;
+import hudson.security.Permission;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.jenkinsci.plugins.matrixauth.PermissionEntry;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+@WithJenkins
+class DynamicPermissionRulesTest {
+
+    @Test
+    void testPlanWithExtractedGroups() {
+        DynamicPermissionConfig config = new DynamicPermissionConfig("{1}-developers", null);
+        config.addPermissionId(Item.READ.getId());
+        config.addPermissionId(Item.BUILD.getId());
+        DynamicPermissionRules rules = DynamicPermissionRules.compile("com\\.([A-Z]{3})\\.(.*)", List.of(config));
+        assertEquals(1, rules.size());
+
+        PermissionPlan plan = new PermissionPlan();
+        rules.plan(plan, "com.ABC.project");
+        Map<Permission, Set<PermissionEntry>> grants = plan.getGrants();
+        assertEquals(2, grants.size());
+        assertTrue(grants.get(Item.READ).contains(PermissionEntry.group("ABC-developers")));
+        assertTrue(grants.get(Item.BUILD).contains(PermissionEntry.group("ABC-developers")));
+    }
+
+    @Test
+    void testPlanWithoutMatch() {
+        DynamicPermissionConfig config = new DynamicPermissionConfig("authenticated", null);
+        config.addPermissionId(Item.READ.getId());
+        config.addPermissionId("unknown.Permission");
+        DynamicPermissionRules rules = DynamicPermissionRules.compile("com\\.([A-Z]{3})", List.of(config));
+
+        PermissionPlan plan = new PermissionPlan();
+        rules.plan(plan, "project");
+        assertEquals(1, plan.getGrants().size());
+        assertTrue(plan.getGrants().get(Item.READ).contains(PermissionEntry.group("authenticated")));
+    }
+
+    @Test
+    void testInvalidPatternAndEmptyRules() {
+        DynamicPermissionRules rules = DynamicPermissionRules.compile("(", Collections.emptyList());
+        PermissionPlan plan = new PermissionPlan();
+        rules.plan(plan, "project");
+        assertTrue(plan.isEmpty());
+    }
+
+    @Test
+    void testPlanWithDefinitionPatterns() {
+        DynamicPermissionConfig bu1 = new DynamicPermissionConfig("{1}-bu1", null);
+        bu1.setExtractPattern("^bu1\\.(.*)");
+        bu1.addPermissionId(Item.READ.getId());
+        DynamicPermissionConfig bu2 = new DynamicPermissionConfig("{1}-bu2", null);
+        bu2.setExtractPattern("^bu2\\.(.*)");
+        bu2.addPermissionId(Item.READ.getId());
+        DynamicPermissionConfig global = new DynamicPermissionConfig("{1}-all", null);
+        global.addPermissionId(Item.BUILD.getId());
+        DynamicPermissionRules rules = DynamicPermissionRules.compile("\\.(.*)", List.of(bu1, bu2, global));
+        assertEquals(3, rules.size());
+
+        PermissionPlan plan = new PermissionPlan();
+        rules.plan(plan, "bu2.web");
+        Map<Permission, Set<PermissionEntry>> grants = plan.getGrants();
+        assertEquals(Set.of(PermissionEntry.group("web-bu2")), grants.get(Item.READ));
+        assertEquals(Set.of(PermissionEntry.group("web-all")), grants.get(Item.BUILD));
+    }
+
+    @Test
+    void testLiteralPrefix() {
+        assertEquals("com.", DynamicPermissionRules.literalPrefix("com\\.([A-Z]{3})\\.(.*)"));
+        assertEquals("bu", DynamicPermissionRules.literalPrefix("^bu1?\\.(.*)"));
+        assertEquals("a", DynamicPermissionRules.literalPrefix("a+b"));
+        assertNull(DynamicPermissionRules.literalPrefix("(.*)"));
+        assertNull(DynamicPermissionRules.literalPrefix("a|b"));
+        assertNull(DynamicPermissionRules.literalPrefix("\\d+"));
+    }
+}
@@ -3,9 +3,12 @@ package hudson.plugins.createjobadvanced;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.HashSet;
+import java.util.Set;
 import org.junit.jupiter.api.Test;
 
 class DynamicPermissionsConfigTest {
@@ -31,4 +34,20 @@ class DynamicPermissionsConfigTest {
         assertTrue(config.getCheckedPermissionIds().isEmpty());
         assertEquals("[DynamicPermissionConfig: null, permissions: []]", config.toString());
     }
+
+    @Test
+    void testFrozenCopy() {
+        // Published definitions are not affected by later changes of the configured ones.
+        DynamicPermissionConfig config = new DynamicPermissionConfig("groupFormat", new HashSet<>());
+        config.addPermissionId("hudson.model.Item.Read");
+        DynamicPermissionConfig frozen = config.freeze();
+        assertSame(frozen, frozen.freeze());
+
+        config.setExtractPattern("(.*)");
+        config.addPermissionId("hudson.model.Item.Build");
+        assertNull(frozen.getExtractPattern());
+        assertEquals(Set.of("hudson.model.Item.Read"), frozen.getCheckedPermissionIds());
+        assertThrows(UnsupportedOperationException.class, () -> frozen.setExtractPattern("(.*)"));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.addPermissionId("hudson.model.Item.Build"));
+    }
 }
@@ -0,0 +1,87 @@
+package hudson.plugins.createjobadvanced;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.cloudbees.hudson.plugins.folder.Folder;
+import hudson.model.FreeStyleProject;
+import hudson.model.Item;
+import hudson.security.AuthorizationMatrixProperty;
+import java.util.List;
+import net.sf.json.JSONObject;
+import org.jenkinsci.plugins.matrixauth.PermissionEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+@WithJenkins
+class FolderPolicyIndexTest {
+
+    private JenkinsRule r;
+
+    private PluginConfiguration global;
+
+    @BeforeEach
+    void setUp(JenkinsRule rule) throws Exception {
+        r = rule;
+        PluginTestSupport.secure(r, "alice");
+        JSONObject formData = new JSONObject();
+        formData.put("security", true);
+        formData.put("public", true);
+        global = PluginTestSupport.configure(r, formData).getConfiguration();
+    }
+
+    @Test
+    void folderPolicyTest() throws Exception {
+        // Folder policy replaces public browsing and adds a group for its whole subtree only.
+        Folder folder = r.jenkins.createProject(Folder.class, "team");
+        FolderPolicyProperty policy = policy("team-developers");
+        folder.addProperty(policy);
+        assertSame(policy, FolderPolicyIndex.get().getPolicy("team"));
+        Folder nested = folder.createProject(Folder.class, "nested");
+        FreeStyleProject outside = r.createFreeStyleProject("outside");
+
+        FreeStyleProject project = nested.createProject(FreeStyleProject.class, "job");
+        PluginConfiguration resolved = FolderPolicyIndex.get().resolve(project, global);
+        assertFalse(resolved.isAutoPublicBrowse());
+        assertTrue(resolved.isActiveDynamicPermissions());
+        assertEquals(1, resolved.getDynamicPermissionConfigs().size());
+        assertSame(global, FolderPolicyIndex.get().resolve(outside, global));
+
+        AuthorizationMatrixProperty property = project.getProperty(AuthorizationMatrixProperty.class);
+        assertNotNull(property);
+        assertFalse(property.hasExplicitPermission(PermissionEntry.user("anonymous"), Item.READ));
+        assertTrue(property.hasExplicitPermission(PermissionEntry.group("team-developers"), Item.BUILD));
+    }
+
+    @Test
+    void renamedAndDeletedFolderTest() throws Exception {
+        // The index follows folder renames and forgets deleted folders.
+        Folder folder = r.jenkins.createProject(Folder.class, "team");
+        FolderPolicyProperty policy = policy("team-developers");
+        folder.addProperty(policy);
+
+        folder.renameTo("squad");
+        assertNull(FolderPolicyIndex.get().getPolicy("team"));
+        assertSame(policy, FolderPolicyIndex.get().getPolicy("squad"));
+        FreeStyleProject project = folder.createProject(FreeStyleProject.class, "job");
+        assertFalse(FolderPolicyIndex.get().resolve(project, global).isAutoPublicBrowse());
+
+        folder.delete();
+        assertNull(FolderPolicyIndex.get().getPolicy("squad"));
+    }
+
+    private static FolderPolicyProperty policy(String group) {
+        FolderPolicyProperty policy = new FolderPolicyProperty();
+        policy.setPublicBrowse(FolderPolicyProperty.Mode.DISABLED);
+        DynamicPermissionConfig config = new DynamicPermissionConfig(group, null);
+        config.addPermissionId(Item.BUILD.getId());
+        policy.setDynamicPermissionConfigs(List.of(config));
+        return policy;
+    }
+}
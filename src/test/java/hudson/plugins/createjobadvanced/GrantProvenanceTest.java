@@ -0,0 +1,109 @@
+package hudson.plugins.createjobadvanced;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import hudson.model.FreeStyleProject;
+import hudson.model.Item;
+import hudson.security.AuthorizationMatrixProperty;
+import hudson.security.Permission;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import net.sf.json.JSONObject;
+import org.jenkinsci.plugins.matrixauth.PermissionEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.JenkinsSessionExtension;
+
+class GrantProvenanceTest {
+
+    @RegisterExtension
+    private final JenkinsSessionExtension sessions = new JenkinsSessionExtension();
+
+    @Test
+    void restartTest() throws Throwable {
+        // Grants added by the plugin are recorded with their policy, and survive a restart.
+        AtomicReference<Map<Permission, Set<PermissionEntry>>> recorded = new AtomicReference<>();
+        AtomicLong ruleVersion = new AtomicLong();
+        sessions.then(r -> {
+            configure(r, true);
+            FreeStyleProject project = PluginTestSupport.createAs(r, "alice", FreeStyleProject.class, "tracked");
+            AuthorizationMatrixProperty property = project.getProperty(AuthorizationMatrixProperty.class);
+            assertNotNull(property);
+            property.add(Item.WORKSPACE, PermissionEntry.group("ops"));
+            project.save();
+
+            Map<Permission, Set<PermissionEntry>> grants = GrantProvenance.get().getGrants("tracked");
+            assertTrue(grants.get(Item.CONFIGURE).contains(PermissionEntry.user("alice")));
+            assertTrue(grants.get(Item.READ).contains(PermissionEntry.user("anonymous")));
+            assertNull(grants.get(Item.WORKSPACE));
+            recorded.set(grants);
+            ruleVersion.set(CreateJobAdvancedPlugin.get().getConfiguration().getPolicyFingerprint());
+            assertEquals(ruleVersion.get(), GrantProvenance.get().getRuleVersion("tracked"));
+        });
+        sessions.then(r -> {
+            GrantProvenance provenance = GrantProvenance.get();
+            // read back from the index written on shutdown
+            provenance.remove("tracked");
+            provenance.load();
+            assertEquals(recorded.get(), provenance.getGrants("tracked"));
+            assertEquals(ruleVersion.get(), provenance.getRuleVersion("tracked"));
+            assertTrue(provenance.isGranted("tracked", Item.CONFIGURE, PermissionEntry.user("alice")));
+            assertFalse(provenance.isGranted("tracked", Item.WORKSPACE, PermissionEntry.group("ops")));
+
+            FreeStyleProject project = r.jenkins.getItemByFullName("tracked", FreeStyleProject.class);
+            assertNotNull(project);
+            project.delete();
+            assertNull(provenance.getRuleVersion("tracked"));
+        });
+    }
+
+    @Test
+    void ruleVersionPerGrantTest() throws Throwable {
+        // Each grant keeps the fingerprint of the policy which added it, also once persisted.
+        sessions.then(r -> {
+            configure(r, false);
+            PluginTestSupport.createAs(r, "alice", FreeStyleProject.class, "versioned");
+            long ownerVersion = CreateJobAdvancedPlugin.get().getConfiguration().getPolicyFingerprint();
+
+            configure(r, true);
+            long publicVersion = CreateJobAdvancedPlugin.get().getConfiguration().getPolicyFingerprint();
+            assertNotEquals(ownerVersion, publicVersion);
+            assertEquals(1, new PolicyReapplier().withFolder("versioned").run().getUpdated());
+
+            GrantProvenance provenance = GrantProvenance.get();
+            assertEquals(publicVersion, provenance.getRuleVersion("versioned"));
+            assertEquals(
+                    ownerVersion,
+                    provenance.getRuleVersion("versioned", Item.CONFIGURE, PermissionEntry.user("alice")));
+            assertEquals(
+                    publicVersion,
+                    provenance.getRuleVersion("versioned", Item.READ, PermissionEntry.user("anonymous")));
+
+            provenance.save();
+            provenance.remove("versioned");
+            provenance.load();
+            assertEquals(
+                    ownerVersion,
+                    provenance.getRuleVersion("versioned", Item.CONFIGURE, PermissionEntry.user("alice")));
+            assertEquals(
+                    publicVersion,
+                    provenance.getRuleVersion("versioned", Item.READ, PermissionEntry.user("anonymous")));
+        });
+    }
+
+    private static void configure(JenkinsRule r, boolean publicBrowse) throws Exception {
+        PluginTestSupport.secure(r, "alice");
+        JSONObject formData = new JSONObject();
+        formData.put("security", true);
+        formData.put("public", publicBrowse);
+        PluginTestSupport.configure(r, formData);
+    }
+}
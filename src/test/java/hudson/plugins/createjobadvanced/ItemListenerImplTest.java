@@ -1,12 +1,42 @@
 package hudson.plugins.createjobadvanced;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.cloudbees.hudson.plugins.folder.Folder;
+import hudson.XmlFile;
+import hudson.maven.MavenModuleSet;
+import hudson.maven.reporters.MavenMailer;
+import hudson.model.FreeStyleProject;
+import hudson.model.Item;
+import hudson.model.Saveable;
+import hudson.model.User;
+import hudson.model.listeners.ItemListener;
+import hudson.model.listeners.SaveableListener;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import hudson.security.AuthorizationMatrixProperty;
+import java.net.URL;
+import java.net.URLEncoder;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.sf.json.JSONObject;
+import org.htmlunit.HttpMethod;
+import org.htmlunit.WebRequest;
+import org.htmlunit.WebResponse;
+import org.jenkinsci.plugins.matrixauth.PermissionEntry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.TestExtension;
 import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+import org.kohsuke.stapler.Stapler;
 
 @WithJenkins
 class ItemListenerImplTest {
@@ -36,4 +66,169 @@ class ItemListenerImplTest {
                 hasFolderConfigurer,
                 "FolderConfigurer should be present in configurers list when folder-plugin is installed");
     }
+
+    @Test
+    void contributedConfigurerTest() throws Exception {
+        ItemListenerImpl itemListener = r.jenkins.getExtensionList(ItemListenerImpl.class).get(0);
+        FreeStyleConfigurer contributed = r.jenkins.getExtensionList(FreeStyleConfigurer.class).get(0);
+
+        FreeStyleProject project = r.createFreeStyleProject("contributed");
+        assertEquals(1, contributed.created);
+        assertTrue(itemListener.getConfigurers(project).contains(contributed));
+
+        // not dispatched to configurers of other item types
+        Folder folder = r.jenkins.createProject(Folder.class, "folder");
+        assertEquals(1, contributed.created);
+        List<AbstractConfigurer<?, ?>> configurers = itemListener.getConfigurers(folder);
+        assertFalse(configurers.contains(contributed));
+        assertTrue(configurers.stream().anyMatch(configurer -> configurer instanceof FolderConfigurer));
+        assertFalse(configurers.stream().anyMatch(configurer -> configurer instanceof JobConfigurer));
+    }
+
+    @Test
+    void coalescedSaveTest() throws Exception {
+        // Permissions, log rotator and Maven settings of a created item are persisted with a single save.
+        PluginTestSupport.secure(r, "alice");
+        JSONObject formData = new JSONObject();
+        formData.put("security", true);
+        formData.put("public", true);
+        formData.put("mvnPerModuleEmail", true);
+        JSONObject logRotator = new JSONObject();
+        logRotator.put("numToKeep", 10);
+        formData.put("activeLogRotator", logRotator);
+        PluginTestSupport.configure(r, formData);
+        MavenModuleSet project = PluginTestSupport.createAs(r, "alice", MavenModuleSet.class, "coalesced");
+        project.removeProperty(AuthorizationMatrixProperty.class);
+        project.setBuildDiscarder(null);
+        project.getReporters().remove(MavenMailer.class);
+
+        ItemListenerImpl listener = r.jenkins.getExtensionList(ItemListenerImpl.class).get(0);
+        SaveCounter counter = SaveableListener.all().get(SaveCounter.class);
+        assertNotNull(counter);
+        counter.saves.set(0);
+        try (ACLContext ignored = ACL.as2(User.getById("alice", true).impersonate2())) {
+            listener.configure(project);
+        }
+        assertEquals(1, counter.saves.get());
+        assertNotNull(project.getBuildDiscarder());
+        assertNotNull(project.getReporters().get(MavenMailer.class));
+        AuthorizationMatrixProperty property = project.getProperty(AuthorizationMatrixProperty.class);
+        assertNotNull(property);
+        assertTrue(property.hasExplicitPermission(PermissionEntry.user("alice"), Item.CONFIGURE));
+
+        // the single save holds every change
+        MavenModuleSet reloaded = (MavenModuleSet) project.getConfigFile().read();
+        assertNotNull(reloaded.getBuildDiscarder());
+        assertNotNull(reloaded.getProperty(AuthorizationMatrixProperty.class));
+    }
+
+    @Test
+    void copiedItemTest() throws Exception {
+        // Plugin grants are merged in place into the matrix copied from the template, its grants are kept.
+        PluginTestSupport.secure(r, "alice", "bob");
+        JSONObject formData = new JSONObject();
+        formData.put("security", true);
+        PluginTestSupport.configure(r, formData);
+        FreeStyleProject template = PluginTestSupport.createAs(r, "bob", FreeStyleProject.class, "template");
+        AuthorizationMatrixProperty templateProperty = template.getProperty(AuthorizationMatrixProperty.class);
+        assertNotNull(templateProperty);
+        templateProperty.add(Item.EXTENDED_READ, PermissionEntry.group("reviewers"));
+        // allowed to copy the template
+        templateProperty.add(Item.READ, PermissionEntry.user("alice"));
+        templateProperty.add(Item.EXTENDED_READ, PermissionEntry.user("alice"));
+        template.save();
+
+        FreeStyleProject copy;
+        AuthorizationMatrixProperty copied;
+        // deferred, to get the copied matrix before the plugin grants are merged
+        try (ConfigurationSession ignored = ConfigurationSession.open();
+                ACLContext ignored2 = ACL.as2(User.getById("alice", true).impersonate2())) {
+            copy = r.jenkins.copy(template, "copy");
+            copied = copy.getProperty(AuthorizationMatrixProperty.class);
+            assertNotNull(copied);
+            assertFalse(copied.hasExplicitPermission(PermissionEntry.user("alice"), Item.CONFIGURE));
+        }
+        assertSame(copied, copy.getProperty(AuthorizationMatrixProperty.class));
+        assertTrue(copied.hasExplicitPermission(PermissionEntry.user("alice"), Item.CONFIGURE));
+        assertTrue(copied.hasExplicitPermission(PermissionEntry.user("bob"), Item.CONFIGURE));
+        assertTrue(copied.hasExplicitPermission(PermissionEntry.group("reviewers"), Item.EXTENDED_READ));
+        assertFalse(templateProperty.hasExplicitPermission(PermissionEntry.user("alice"), Item.CONFIGURE));
+    }
+
+    @Test
+    void scriptRenameTest() throws Exception {
+        // Renamed outside of any web request, the item is normalized once, without redirect.
+        replaceSpaces();
+        FreeStyleProject project = r.createFreeStyleProject("before");
+        assertNull(Stapler.getCurrentRequest2());
+        project.renameTo("a b");
+        assertEquals("a-b", project.getName());
+        assertEquals(List.of("a b", "a-b"), r.jenkins.getExtensionList(RenameCounter.class).get(0).names);
+    }
+
+    @Test
+    void webRenameTest() throws Exception {
+        // Renamed from the rename page, the item is normalized once and the client redirected to its final name.
+        replaceSpaces();
+        FreeStyleProject project = r.createFreeStyleProject("before");
+        try (JenkinsRule.WebClient wc = r.createWebClient()) {
+            wc.getOptions().setRedirectEnabled(false);
+            wc.setThrowExceptionOnFailingStatusCode(false);
+            WebRequest request = new WebRequest(
+                    new URL(r.getURL(), "job/before/confirmRename?newName=" + URLEncoder.encode("a b", UTF_8)),
+                    HttpMethod.POST);
+            wc.addCrumb(request);
+            WebResponse response = wc.getPage(request).getWebResponse();
+            assertEquals(302, response.getStatusCode());
+            assertTrue(response.getResponseHeaderValue("Location").endsWith("a-b"));
+        }
+        assertEquals("a-b", project.getName());
+        assertEquals(List.of("a b", "a-b"), r.jenkins.getExtensionList(RenameCounter.class).get(0).names);
+    }
+
+    private void replaceSpaces() throws Exception {
+        JSONObject formData = new JSONObject();
+        formData.put("jobspacesinname", true);
+        PluginTestSupport.configure(r, formData);
+    }
+
+    @TestExtension({"scriptRenameTest", "webRenameTest"})
+    public static final class RenameCounter extends ItemListener {
+
+        private final List<String> names = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onRenamed(Item item, String oldName, String newName) {
+            names.add(newName);
+        }
+    }
+
+    @TestExtension("coalescedSaveTest")
+    public static class SaveCounter extends SaveableListener {
+
+        private final AtomicInteger saves = new AtomicInteger();
+
+        @Override
+        public void onChange(Saveable o, XmlFile file) {
+            if (o instanceof Item) {
+                saves.incrementAndGet();
+            }
+        }
+    }
+
+    @TestExtension("contributedConfigurerTest")
+    public static final class FreeStyleConfigurer extends JobConfigurer {
+
+        private int created;
+
+        @Override
+        protected void doCreate(Item item) {
+            created++;
+        }
+
+        @Override
+        protected boolean isApplicable(Class<?> itemType) {
+            return FreeStyleProject.class.isAssignableFrom(itemType);
+        }
+    }
 }
@@ -0,0 +1,125 @@
+package hudson.plugins.createjobadvanced;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.cloudbees.hudson.plugins.folder.Folder;
+import hudson.model.FreeStyleProject;
+import hudson.model.Item;
+import hudson.model.Items;
+import hudson.security.AuthorizationMatrixProperty;
+import java.util.List;
+import net.sf.json.JSONObject;
+import org.jenkinsci.plugins.matrixauth.PermissionEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+@WithJenkins
+class MovedItemsRecomputerTest {
+
+    private JenkinsRule r;
+
+    @BeforeEach
+    void setUp(JenkinsRule rule) throws Exception {
+        r = rule;
+        PluginTestSupport.secure(r, "alice");
+        configure(false);
+    }
+
+    @Test
+    void renamedItemTest() throws Exception {
+        // Dynamic grants follow the item name, grants not added by the plugin are kept.
+        FreeStyleProject project = PluginTestSupport.createAs(r, "alice", FreeStyleProject.class, "alpha-job");
+        AuthorizationMatrixProperty property = project.getProperty(AuthorizationMatrixProperty.class);
+        assertNotNull(property);
+        assertTrue(property.hasExplicitPermission(PermissionEntry.group("alpha-developers"), Item.BUILD));
+        property.add(Item.BUILD, PermissionEntry.group("ops"));
+
+        project.renameTo("beta-job");
+        property = project.getProperty(AuthorizationMatrixProperty.class);
+        assertNotNull(property);
+        assertFalse(property.hasExplicitPermission(PermissionEntry.group("alpha-developers"), Item.BUILD));
+        assertTrue(property.hasExplicitPermission(PermissionEntry.group("beta-developers"), Item.BUILD));
+        assertTrue(property.hasExplicitPermission(PermissionEntry.group("ops"), Item.BUILD));
+        assertTrue(property.hasExplicitPermission(PermissionEntry.user("alice"), Item.CONFIGURE));
+        assertTrue(GrantProvenance.get().isGranted("beta-job", Item.BUILD, PermissionEntry.group("beta-developers")));
+    }
+
+    @Test
+    void normalizedRenameTest() throws Exception {
+        // Grants follow an item renamed to a name normalized again, their provenance being kept under its final name.
+        configure(true);
+        FreeStyleProject project = PluginTestSupport.createAs(r, "alice", FreeStyleProject.class, "alpha-job");
+
+        project.renameTo("beta job");
+        assertEquals("beta-job", project.getFullName());
+        AuthorizationMatrixProperty property = project.getProperty(AuthorizationMatrixProperty.class);
+        assertNotNull(property);
+        assertFalse(property.hasExplicitPermission(PermissionEntry.group("alpha-developers"), Item.BUILD));
+        assertTrue(property.hasExplicitPermission(PermissionEntry.group("beta-developers"), Item.BUILD));
+        GrantProvenance provenance = GrantProvenance.get();
+        assertTrue(provenance.isGranted("beta-job", Item.BUILD, PermissionEntry.group("beta-developers")));
+        assertFalse(provenance.isGranted("beta-job", Item.BUILD, PermissionEntry.group("alpha-developers")));
+        assertTrue(provenance.getGrants("alpha-job").isEmpty());
+        assertTrue(provenance.getGrants("beta job").isEmpty());
+    }
+
+    @Test
+    void movedToFolderTest() throws Exception {
+        // Items moved out of a folder lose the group of its policy and get the one of their new folder.
+        Folder team = r.jenkins.createProject(Folder.class, "team");
+        team.addProperty(policy("team-developers"));
+        Folder squad = r.jenkins.createProject(Folder.class, "squad");
+        squad.addProperty(policy("squad-developers"));
+        FreeStyleProject project = team.createProject(FreeStyleProject.class, "job");
+        AuthorizationMatrixProperty property = project.getProperty(AuthorizationMatrixProperty.class);
+        assertNotNull(property);
+        assertTrue(property.hasExplicitPermission(PermissionEntry.group("team-developers"), Item.BUILD));
+
+        Items.move(project, squad);
+        property = project.getProperty(AuthorizationMatrixProperty.class);
+        assertNotNull(property);
+        assertFalse(property.hasExplicitPermission(PermissionEntry.group("team-developers"), Item.BUILD));
+        assertTrue(property.hasExplicitPermission(PermissionEntry.group("squad-developers"), Item.BUILD));
+        assertTrue(GrantProvenance.get().isGranted("squad/job", Item.BUILD, PermissionEntry.group("squad-developers")));
+    }
+
+    @Test
+    void renamedFolderTest() throws Exception {
+        // Items of a renamed folder keep the grants of its policy, followed by the index.
+        Folder team = r.jenkins.createProject(Folder.class, "team");
+        team.addProperty(policy("team-developers"));
+        FreeStyleProject project = team.createProject(FreeStyleProject.class, "job");
+
+        team.renameTo("squad");
+        AuthorizationMatrixProperty property = project.getProperty(AuthorizationMatrixProperty.class);
+        assertNotNull(property);
+        assertTrue(property.hasExplicitPermission(PermissionEntry.group("team-developers"), Item.BUILD));
+        assertTrue(GrantProvenance.get().isGranted("squad/job", Item.BUILD, PermissionEntry.group("team-developers")));
+    }
+
+    private void configure(boolean replaceSpace) throws Exception {
+        JSONObject formData = new JSONObject();
+        formData.put("security", true);
+        formData.put("jobspacesinname", replaceSpace);
+        formData.put("recomputeOnMove", true);
+        formData.put(
+                "activeDynamicPermissions",
+                PluginTestSupport.dynamicPermissions("([a-z]+)-.*", "{1}-developers", Item.BUILD));
+        PluginTestSupport.configure(r, formData);
+    }
+
+    private static FolderPolicyProperty policy(String group) {
+        FolderPolicyProperty policy = new FolderPolicyProperty();
+        DynamicPermissionConfig config = new DynamicPermissionConfig(group, null);
+        // granted whatever the item name
+        config.setExtractPattern(".*");
+        config.addPermissionId(Item.BUILD.getId());
+        policy.setDynamicPermissionConfigs(List.of(config));
+        return policy;
+    }
+}
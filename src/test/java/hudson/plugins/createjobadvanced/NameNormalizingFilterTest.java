@@ -0,0 +1,87 @@
+package hudson.plugins.createjobadvanced;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+
+import hudson.model.FreeStyleProject;
+import hudson.model.Item;
+import hudson.model.listeners.ItemListener;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import net.sf.json.JSONObject;
+import org.htmlunit.HttpMethod;
+import org.htmlunit.WebRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.TestExtension;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+import org.kohsuke.stapler.StaplerRequest2;
+
+@WithJenkins
+class NameNormalizingFilterTest {
+
+    private JenkinsRule r;
+
+    @BeforeEach
+    void setUp(JenkinsRule rule) {
+        r = rule;
+    }
+
+    @Test
+    void normalizedOnRequestTest() throws Exception {
+        // Items are created under their normalized name, without being renamed afterwards.
+        configure(true);
+        createItem("a b");
+        assertNotNull(r.jenkins.getItem("a-b", r.jenkins, FreeStyleProject.class));
+        assertNull(r.jenkins.getItem("a b"));
+        assertEquals(0, r.jenkins.getExtensionList(RenameCounter.class).get(0).renamed);
+    }
+
+    @Test
+    void notNormalizedOnRequestTest() throws Exception {
+        // Names are left alone when the option is off.
+        configure(false);
+        createItem("a b");
+        assertNotNull(r.jenkins.getItem("a b", r.jenkins, FreeStyleProject.class));
+        assertNull(r.jenkins.getItem("a-b"));
+    }
+
+    private void configure(boolean normalize) throws Exception {
+        CreateJobAdvancedPlugin cja = r.jenkins.getPlugin(CreateJobAdvancedPlugin.class);
+        assertNotNull(cja);
+        JSONObject formData = new JSONObject();
+        formData.put("jobspacesinname", normalize);
+        formData.put("normalizeNameOnRequest", normalize);
+        cja.configure(mock(StaplerRequest2.class), formData);
+    }
+
+    private void createItem(String name) throws Exception {
+        try (JenkinsRule.WebClient wc = r.createWebClient()) {
+            wc.getOptions().setRedirectEnabled(false);
+            wc.setThrowExceptionOnFailingStatusCode(false);
+            WebRequest request = new WebRequest(
+                    new URL(
+                            r.getURL(),
+                            "createItem?name=" + URLEncoder.encode(name, StandardCharsets.UTF_8) + "&mode="
+                                    + FreeStyleProject.class.getName()),
+                    HttpMethod.POST);
+            wc.addCrumb(request);
+            wc.getPage(request);
+        }
+    }
+
+    @TestExtension("normalizedOnRequestTest")
+    public static final class RenameCounter extends ItemListener {
+
+        private int renamed;
+
+        @Override
+        public void onRenamed(Item item, String oldName, String newName) {
+            renamed++;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package hudson.plugins.createjobadvanced;
+
+import hudson.model.Item;
+import hudson.model.Run;
+import hudson.security.Permission;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Cost of the permission catalog used by the global configuration page.
+ */
+@State(Scope.Thread)
+public class PermissionCatalogBenchmark {
+
+    @Setup
+    public void setUp() {
+        // permission groups are registered when their owner class is initialized
+        Objects.requireNonNull(Item.READ);
+        Objects.requireNonNull(Run.DELETE);
+    }
+
+    @Benchmark
+    public Map<String, List<Permission>> getAllPossiblePermissions() {
+        return CreateJobAdvancedPlugin.getAllPossiblePermissions();
+    }
+
+    @Benchmark
+    public void impliedByList(Blackhole blackhole) {
+        for (List<Permission> permissions : CreateJobAdvancedPlugin.getAllPossiblePermissions().values()) {
+            for (Permission permission : permissions) {
+                blackhole.consume(CreateJobAdvancedPlugin.impliedByList(permission));
+            }
+        }
+    }
+}
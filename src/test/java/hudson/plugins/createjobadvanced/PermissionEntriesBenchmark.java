@@ -0,0 +1,84 @@
+package hudson.plugins.createjobadvanced;
+
+import hudson.model.Item;
+import hudson.security.Permission;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.jenkinsci.plugins.matrixauth.PermissionEntry;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Heap retained by the authorization matrices of a large synthetic instance, whose items carry near-identical group
+ * grants, with and without interned permission entries.
+ * <P>
+ * The {@code retainedBytes} counter holds the heap used by the matrices once garbage collected.
+ */
+@State(Scope.Benchmark)
+public class PermissionEntriesBenchmark {
+
+    private static final String[] GROUPS = {"developers", "testers", "release-managers", "auditors"};
+
+    private static final Permission[] PERMISSIONS = {Item.READ, Item.BUILD, Item.CONFIGURE, Item.WORKSPACE};
+
+    @Param({"false", "true"})
+    public boolean interned;
+
+    @Param({"100000"})
+    public int items;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+
+        public long retainedBytes;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public List<StubConfigurer.StubProperty> loadMatrices(Footprint footprint) throws Exception {
+        final StubConfigurer configurer = new StubConfigurer();
+        final long baseline = usedHeapAfterGc();
+        final List<StubConfigurer.StubProperty> result = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            final Map<Permission, Set<PermissionEntry>> permissions = new HashMap<>();
+            for (String group : GROUPS) {
+                // as read from each config.xml, names are distinct string instances
+                final PermissionEntry entry = PermissionEntry.group(new String(group.toCharArray()));
+                for (Permission permission : PERMISSIONS) {
+                    permissions.computeIfAbsent(permission, p -> new HashSet<>()).add(entry);
+                }
+            }
+            result.add(interned ? configurer.setupAuthorizationMatrixProperty(permissions) : copy(permissions));
+        }
+        footprint.retainedBytes = usedHeapAfterGc() - baseline;
+        return result;
+    }
+
+    private static StubConfigurer.StubProperty copy(Map<Permission, Set<PermissionEntry>> permissions) {
+        final StubConfigurer.StubProperty result = new StubConfigurer.StubProperty();
+        for (Map.Entry<Permission, Set<PermissionEntry>> entry : permissions.entrySet()) {
+            result.grants.put(entry.getKey(), new HashSet<>(entry.getValue()));
+        }
+        return result;
+    }
+
+    private static long usedHeapAfterGc() {
+        final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
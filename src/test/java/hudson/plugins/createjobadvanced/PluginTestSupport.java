@@ -0,0 +1,100 @@
+package hudson.plugins.createjobadvanced;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import hudson.model.Item;
+import hudson.model.TopLevelItem;
+import hudson.model.User;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import hudson.security.Permission;
+import hudson.security.ProjectMatrixAuthorizationStrategy;
+import java.util.HashSet;
+import jenkins.model.Jenkins;
+import net.sf.json.JSONObject;
+import org.jenkinsci.plugins.matrixauth.PermissionEntry;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.kohsuke.stapler.StaplerRequest2;
+
+/**
+ * Plugin configuration and item creation helpers shared by tests.
+ */
+final class PluginTestSupport {
+
+    private PluginTestSupport() {}
+
+    /**
+     * Enable security, with given users allowed to read Jenkins and to create items.
+     *
+     * @param r Jenkins rule
+     * @param users user IDs
+     */
+    static void secure(JenkinsRule r, String... users) {
+        r.jenkins.setSecurityRealm(r.createDummySecurityRealm());
+        ProjectMatrixAuthorizationStrategy strategy = new ProjectMatrixAuthorizationStrategy();
+        for (String user : users) {
+            strategy.add(Jenkins.READ, PermissionEntry.user(user));
+            strategy.add(Item.CREATE, PermissionEntry.user(user));
+        }
+        r.jenkins.setAuthorizationStrategy(strategy);
+    }
+
+    /**
+     * Configure the plugin as from its configuration page.
+     *
+     * @param r Jenkins rule
+     * @param formData submitted form
+     * @return plugin instance
+     * @throws Exception if the configuration fails
+     */
+    static CreateJobAdvancedPlugin configure(JenkinsRule r, JSONObject formData) throws Exception {
+        CreateJobAdvancedPlugin cja = r.jenkins.getPlugin(CreateJobAdvancedPlugin.class);
+        if (null == cja) {
+            throw new IllegalStateException("plugin not loaded");
+        }
+        StaplerRequest2 req = mock(StaplerRequest2.class);
+        when(req.bindJSON(eq(DynamicPermissionConfig.class), any(JSONObject.class)))
+                .thenAnswer(invocation -> new DynamicPermissionConfig(
+                        invocation.getArgument(1, JSONObject.class).getString("groupFormat"), new HashSet<>()));
+        cja.configure(req, formData);
+        return cja;
+    }
+
+    /**
+     * @param extractPattern pattern extracting groups from item names
+     * @param groupFormat granted group format
+     * @param permissions granted permissions
+     * @return dynamic permissions form section granting given permissions to given group
+     */
+    static JSONObject dynamicPermissions(String extractPattern, String groupFormat, Permission... permissions) {
+        JSONObject cfgs = new JSONObject();
+        cfgs.put("groupFormat", groupFormat);
+        for (Permission permission : permissions) {
+            cfgs.put(permission.getId(), true);
+        }
+        JSONObject result = new JSONObject();
+        result.put("extractPattern", extractPattern);
+        result.put("cfgs", cfgs);
+        return result;
+    }
+
+    /**
+     * Create an item as given user.
+     *
+     * @param r Jenkins rule
+     * @param user creator user ID
+     * @param type item type
+     * @param name item name
+     * @return created item
+     * @throws Exception if the item cannot be created
+     */
+    static <T extends TopLevelItem> T createAs(JenkinsRule r, String user, Class<T> type, String name)
+            throws Exception {
+        try (ACLContext ignored = ACL.as2(User.getById(user, true).impersonate2())) {
+            return r.createProject(type, name);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package hudson.plugins.createjobadvanced;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import hudson.XmlFile;
+import hudson.model.FreeStyleProject;
+import hudson.model.Item;
+import hudson.model.Saveable;
+import hudson.model.listeners.SaveableListener;
+import hudson.security.AuthorizationMatrixProperty;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.sf.json.JSONObject;
+import org.jenkinsci.plugins.matrixauth.PermissionEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.TestExtension;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+@WithJenkins
+class PolicyReapplierTest {
+
+    private JenkinsRule r;
+
+    @BeforeEach
+    void setUp(JenkinsRule rule) throws Exception {
+        r = rule;
+        PluginTestSupport.secure(r, "alice");
+        JSONObject formData = new JSONObject();
+        formData.put("public", true);
+        formData.put(
+                "activeDynamicPermissions",
+                PluginTestSupport.dynamicPermissions(".*", "authenticated", Item.CONFIGURE));
+        PluginTestSupport.configure(r, formData);
+    }
+
+    @Test
+    void reapplyTest() throws Exception {
+        // Existing items get public and dynamic permissions back, only when not in dry run.
+        FreeStyleProject project = r.createFreeStyleProject("reapply");
+        project.removeProperty(AuthorizationMatrixProperty.class);
+
+        PolicyReapplier.Result result = new PolicyReapplier().withDryRun(true).withParallelism(2).run();
+        assertEquals(result.getTotal(), result.getProcessed());
+        assertEquals(0, result.getFailed());
+        assertTrue(result.getUpdated() > 0);
+        assertNull(project.getProperty(AuthorizationMatrixProperty.class));
+
+        result = new PolicyReapplier().withFolder("reapply").run();
+        assertEquals(1, result.getTotal());
+        assertEquals(1, result.getUpdated());
+        AuthorizationMatrixProperty property = project.getProperty(AuthorizationMatrixProperty.class);
+        assertNotNull(property);
+        assertTrue(property.hasExplicitPermission(PermissionEntry.user("anonymous"), Item.READ));
+        assertTrue(property.hasExplicitPermission(PermissionEntry.group("authenticated"), Item.CONFIGURE));
+    }
+
+    @Test
+    void compliantItemsSkippedTest() throws Exception {
+        // Items already complying with the policy are neither updated nor saved, in dry run or not.
+        FreeStyleProject project = r.createFreeStyleProject("compliant");
+        SaveCounter counter = SaveableListener.all().get(SaveCounter.class);
+        assertNotNull(counter);
+        counter.saves.set(0);
+
+        PolicyReapplier.Result result = new PolicyReapplier().withFolder("compliant").run();
+        assertEquals(0, result.getUpdated());
+        assertEquals(1, result.getSkipped());
+        result = new PolicyReapplier().withDryRun(true).withFolder("compliant").run();
+        assertEquals(0, result.getUpdated());
+        assertEquals(1, result.getSkipped());
+        assertEquals(0, counter.saves.get());
+
+        // once its matrix is dropped, the item is updated and saved once
+        AuthorizationMatrixProperty property = project.getProperty(AuthorizationMatrixProperty.class);
+        assertNotNull(property);
+        project.removeProperty(property);
+        counter.saves.set(0);
+        result = new PolicyReapplier().withFolder("compliant").run();
+        assertEquals(1, result.getUpdated());
+        assertEquals(1, counter.saves.get());
+    }
+
+    @TestExtension("compliantItemsSkippedTest")
+    public static class SaveCounter extends SaveableListener {
+
+        private final AtomicInteger saves = new AtomicInteger();
+
+        @Override
+        public void onChange(Saveable o, XmlFile file) {
+            if (o instanceof Item) {
+                saves.incrementAndGet();
+            }
+        }
+    }
+}
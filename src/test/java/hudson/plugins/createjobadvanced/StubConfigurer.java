@@ -0,0 +1,104 @@
+package hudson.plugins.createjobadvanced;
+
+import hudson.model.AbstractItem;
+import hudson.model.Item;
+import hudson.security.Permission;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.jenkinsci.plugins.matrixauth.PermissionEntry;
+import org.jenkinsci.plugins.matrixauth.inheritance.InheritanceStrategy;
+
+/**
+ * In-memory configurer used to exercise {@link AbstractConfigurer} without a running Jenkins.
+ */
+final class StubConfigurer extends AbstractConfigurer<AbstractItem, StubConfigurer.StubProperty> {
+
+    /**
+     * Authorization property of each item
+     */
+    private final Map<Item, StubProperty> properties = new HashMap<>();
+
+    /**
+     * Number of item saves
+     */
+    private int saves;
+
+    int getSaves() {
+        return saves;
+    }
+
+    @Override
+    protected void setInheritanceStrategy(StubProperty authProperty, InheritanceStrategy inheritanceStrategy) {
+        if (null != authProperty) {
+            authProperty.strategy = inheritanceStrategy;
+        }
+    }
+
+    @Override
+    protected void addPermission(StubProperty authProperty, Permission perm, PermissionEntry permEntry) {
+        if (null != authProperty && null != perm && null != permEntry) {
+            authProperty.grants.computeIfAbsent(perm, p -> new HashSet<>()).add(permEntry);
+        }
+    }
+
+    @Override
+    protected boolean showPermission(Permission perm) {
+        return null != perm && perm.enabled;
+    }
+
+    @Override
+    protected void addAuthorizationMatrixProperty(Item item, StubProperty authProperty) {
+        if (null != item && null != authProperty) {
+            properties.put(item, authProperty);
+            saves++;
+        }
+    }
+
+    @Override
+    protected void saveItem(Item item) {
+        saves++;
+    }
+
+    @Override
+    protected void renameJob(Item item, String newName) {
+        // items are never renamed
+    }
+
+    @Override
+    protected StubProperty createAuthorizationMatrixProperty() {
+        return new StubProperty();
+    }
+
+    @Override
+    protected StubProperty getAuthorizationMatrixProperty(Item item) {
+        return properties.get(item);
+    }
+
+    @Override
+    protected void removeProperty(Item item, StubProperty authProperty) {
+        if (null != item && null != authProperty) {
+            properties.remove(item);
+        }
+    }
+
+    @Override
+    protected Map<Permission, Set<PermissionEntry>> getGrantedPermissionEntries(StubProperty authProperty) {
+        Map<Permission, Set<PermissionEntry>> result = new HashMap<>();
+        if (null != authProperty) {
+            result.putAll(authProperty.grants);
+        }
+        return result;
+    }
+
+    /**
+     * Minimal authorization matrix property.
+     */
+    static final class StubProperty {
+
+        final Map<Permission, Set<PermissionEntry>> grants = new HashMap<>();
+
+        InheritanceStrategy strategy;
+    }
+}